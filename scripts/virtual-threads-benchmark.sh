@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compares platform and virtual threads at 1k-10k concurrent connections.
+# Requires Java 21. Starts the packaged app once per mode and runs the load
+# generator (on virtual threads) at each concurrency level.
+#
+#   CONCURRENCY="1000 5000 10000" DURATION=60s scripts/virtual-threads-benchmark.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY="${CONCURRENCY:-1000 2500 5000 10000}"
+WARMUP="${WARMUP:-10s}"
+DURATION="${DURATION:-30s}"
+PROTOCOLS="${PROTOCOLS:-rest,soap,graphql,grpc}"
+MIX="${MIX:-read=70,create=10,update=10,delete=10}"
+OUT=target/virtual-threads-benchmark
+
+mvn -B -q package -DskipTests
+mvn -B -q -Ploadtest test-compile
+JAR=$(ls target/hotel-reservation-system-*.jar | grep -v original | head -1)
+mkdir -p "$OUT"
+: > "$OUT/summary.txt"
+
+for mode in platform virtual; do
+    virtual=false
+    [ "$mode" = virtual ] && virtual=true
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --spring.threads.virtual.enabled=$virtual \
+        --server.tomcat.max-connections=20000 \
+        --server.tomcat.accept-count=10000 \
+        --spring.jpa.show-sql=false \
+        --logging.level.com.hotel=WARN > "$OUT/app-$mode.log" 2>&1 &
+    app=$!
+    trap 'kill $app 2>/dev/null' EXIT
+    until curl -sf localhost:8081/actuator/health > /dev/null; do sleep 1; done
+
+    run=0
+    for concurrency in $CONCURRENCY; do
+        # Each run books its own millennium so runs on one instance never conflict
+        mvn -B -q -Ploadtest exec:exec -Dloadtest.args="--threads=virtual --concurrency=$concurrency \
+            --warmup=$WARMUP --duration=$DURATION --protocols=$PROTOCOLS --mix=$MIX \
+            --first-date=$((2100 + run * 1000))-01-01 --label=$mode-$concurrency \
+            --report=$OUT/$mode-$concurrency.json" | tee "$OUT/$mode-$concurrency.txt"
+        grep " TOTAL " "$OUT/$mode-$concurrency.txt" | sed "s/^/$mode c=$concurrency /" >> "$OUT/summary.txt"
+        run=$((run + 1))
+    done
+
+    curl -s localhost:8081/actuator/prometheus | grep '^hotel_virtual_pinned_total' >> "$OUT/summary.txt" || true
+    kill $app
+    wait $app 2>/dev/null || true
+    trap - EXIT
+done
+
+echo
+echo "Successful operations per second (reports in $OUT):"
+cat "$OUT/summary.txt"
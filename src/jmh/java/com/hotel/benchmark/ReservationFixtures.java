@@ -0,0 +1,75 @@
+package com.hotel.benchmark;
+
+import com.hotel.dto.ChambreDTO;
+import com.hotel.dto.ClientDTO;
+import com.hotel.dto.ReservationDTO;
+import com.hotel.entity.Chambre;
+import com.hotel.entity.Client;
+import com.hotel.entity.Reservation;
+import com.hotel.entity.TypeChambre;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative reservations shared by the serialization benchmarks
+ */
+public final class ReservationFixtures {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private ReservationFixtures() {
+    }
+
+    public static List<Reservation> reservations(int count) {
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = i + 1;
+            Client client = Client.builder()
+                    .id(id % 100 + 1)
+                    .nom("Dupont")
+                    .prenom("Jean")
+                    .email("jean.dupont" + id + "@email.com")
+                    .telephone("+33612345678")
+                    .build();
+            Chambre chambre = Chambre.builder()
+                    .id(id % 50 + 1)
+                    .type(id % 2 == 0 ? TypeChambre.DOUBLE : TypeChambre.SIMPLE)
+                    .prix(new BigDecimal("129.99"))
+                    .disponible(true)
+                    .build();
+            reservations.add(Reservation.builder()
+                    .id(id)
+                    .client(client)
+                    .chambre(chambre)
+                    .dateDebut(FIRST_DAY.plusDays(i))
+                    .dateFin(FIRST_DAY.plusDays(i + 3))
+                    .preferences("Non-smoking, high floor")
+                    .version(0L)
+                    .build());
+        }
+        return reservations;
+    }
+
+    public static List<ReservationDTO> reservationDTOs(int count) {
+        List<ReservationDTO> dtos = new ArrayList<>(count);
+        for (Reservation reservation : reservations(count)) {
+            Client client = reservation.getClient();
+            Chambre chambre = reservation.getChambre();
+            dtos.add(ReservationDTO.builder()
+                    .id(reservation.getId())
+                    .client(new ClientDTO(client.getId(), client.getNom(), client.getPrenom(),
+                            client.getEmail(), client.getTelephone(), false))
+                    .chambre(new ChambreDTO(chambre.getId(), chambre.getType(), chambre.getPrix(),
+                            chambre.getDisponible(), false))
+                    .dateDebut(reservation.getDateDebut())
+                    .dateFin(reservation.getDateFin())
+                    .preferences(reservation.getPreferences())
+                    .version(reservation.getVersion())
+                    .build());
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hotel.controller;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hotel.benchmark.ReservationFixtures;
+import com.hotel.config.ContentNegotiationConfig;
+import com.hotel.dto.ReservationDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of a REST reservation response in each negotiated format, written by
+ * the message converters the application registers: the body alone, then
+ * gzipped as server compression does for lists. Payload sizes are printed at
+ * setup; run with -prof gc for the allocation per response.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentNegotiationBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private Object body;
+    private Type type;
+
+    @Setup
+    public void setUp() throws IOException {
+        // As Spring Boot configures its builder
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        converter = switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter(builder.build());
+            case "cbor" -> ContentNegotiationConfig.cborConverter(builder);
+            case "smile" -> ContentNegotiationConfig.smileConverter(builder);
+            case "protobuf" -> new ReservationProtobufHttpMessageConverter();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        List<ReservationDTO> dtos = ReservationFixtures.reservationDTOs(size);
+        body = size == 1 ? dtos.get(0) : dtos;
+        type = size == 1
+                ? ReservationDTO.class
+                : ResolvableType.forClassWithGenerics(List.class, ReservationDTO.class).getType();
+        System.out.printf("%n%s, %d reservation(s): %d bytes, %d gzipped%n",
+                format, size, serialize().length, serializeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * size);
+        converter.write(body, type, null, new OutputMessage(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 * size);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            converter.write(body, type, null, new OutputMessage(gzip));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class OutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body;
+
+        OutputMessage(OutputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotel.feed;
+
+import com.hotel.benchmark.ReservationFixtures;
+import com.hotel.dto.ReservationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of publishing a reservation change while subscribers are parked on
+ * other rooms and clients, as front-desk dashboards are between changes to
+ * theirs. A publish only looks at the subscribers of the event's room and
+ * client, so it should cost the same whatever their number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationChangeFeedBenchmark {
+
+    @Param({"0", "1000", "100000"})
+    private int idleSubscribers;
+
+    private ReservationChangeFeed feed;
+    private ReservationDTO reservation;
+    private final List<FeedSubscription> subscriptions = new ArrayList<>();
+    private final AtomicInteger delivered = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        feed = new ReservationChangeFeed(16384, 1, new SimpleMeterRegistry());
+        reservation = ReservationFixtures.reservationDTOs(1).get(0);
+        ReservationEventSink sink = new ReservationEventSink() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void onEvent(ReservationEvent event) {
+                delivered.incrementAndGet();
+            }
+
+            @Override
+            public void onError(FeedException error) {
+                throw error;
+            }
+        };
+        // Half by room, half by client, none matching the published reservation
+        for (int i = 0; i < idleSubscribers; i++) {
+            Long other = 1_000_000L + i;
+            FeedSubscription subscription = i % 2 == 0
+                    ? feed.subscribe(other, null, null, sink)
+                    : feed.subscribe(null, other, null, sink);
+            subscription.signal();
+            subscriptions.add(subscription);
+        }
+        while (!allParked()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        subscriptions.forEach(FeedSubscription::close);
+        feed.close();
+        if (delivered.get() != 0) {
+            throw new IllegalStateException(delivered.get() + " events delivered to idle subscribers");
+        }
+    }
+
+    @Benchmark
+    public void publish() {
+        feed.publishCreated(reservation);
+    }
+
+    private boolean allParked() {
+        return subscriptions.stream().allMatch(subscription -> subscription.parked);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hotel.graphql;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.benchmark.ReservationFixtures;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.preparsed.NoOpPreparsedDocumentProvider;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One GraphQL execution of a typical query, a page of 20 reservations with
+ * their client and room, against the application schema with in-memory data
+ * and the application's depth and complexity limits. The document is parsed
+ * and validated on every request (none), taken from PersistedDocumentProvider
+ * by query text (cached), or by persisted query hash with no query sent
+ * (persisted).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQlDocumentBenchmark {
+
+    private static final String QUERY = """
+            query Reservations($first: Int, $after: String) {
+              reservations(first: $first, after: $after) {
+                edges {
+                  cursor
+                  node {
+                    id dateDebut dateFin preferences version
+                    client { id nom prenom email }
+                    chambre { id type prix disponible }
+                  }
+                }
+                pageInfo { hasNextPage endCursor }
+              }
+            }""";
+
+    @Param({"none", "cached", "persisted"})
+    private String documents;
+
+    private GraphQL graphQL;
+    private ExecutionInput input;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, NoSuchAlgorithmException {
+        List<ReservationEdge> edges = ReservationFixtures.reservationDTOs(20).stream()
+                .map(reservation -> new ReservationEdge("cursor-" + reservation.getId(), reservation))
+                .toList();
+        ReservationConnection connection = new ReservationConnection(edges,
+                new PageInfo(true, false, edges.get(0).getCursor(), edges.get(edges.size() - 1).getCursor()));
+        RuntimeWiring wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", type -> type.dataFetcher("reservations", environment -> connection))
+                .build();
+        GraphQLSchema schema;
+        try (InputStream schemaFile = getClass().getResourceAsStream("/graphql/schema.graphqls")) {
+            schema = new SchemaGenerator().makeExecutableSchema(
+                    new SchemaParser().parse(new InputStreamReader(schemaFile, StandardCharsets.UTF_8)), wiring);
+        }
+        graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new ChainedInstrumentation(
+                        new MaxQueryDepthInstrumentation(15),
+                        new MaxQueryComplexityInstrumentation(10000,
+                                new ReservationComplexityCalculator(50, 500, 1000, 10000))))
+                .preparsedDocumentProvider(documents.equals("none") ? NoOpPreparsedDocumentProvider.INSTANCE
+                        : new PersistedDocumentProvider(Caffeine.newBuilder().maximumSize(1000).build()))
+                .build();
+
+        Map<String, Object> variables = Map.of("first", 20);
+        String hash = String.format("%064x", new BigInteger(1,
+                MessageDigest.getInstance("SHA-256").digest(QUERY.getBytes(StandardCharsets.UTF_8))));
+        Map<String, Object> persistedQuery = Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+        input = ExecutionInput.newExecutionInput(QUERY).variables(variables).build();
+        if (documents.equals("persisted")) {
+            // Registered once with the query, as an Apollo client does after PersistedQueryNotFound
+            check(graphQL.execute(ExecutionInput.newExecutionInput(QUERY)
+                    .variables(variables).extensions(persistedQuery).build()));
+            input = ExecutionInput.newExecutionInput("").variables(variables).extensions(persistedQuery).build();
+        }
+        check(graphQL.execute(input));
+    }
+
+    @Benchmark
+    public ExecutionResult execute() {
+        return graphQL.execute(input);
+    }
+
+    private static void check(ExecutionResult result) {
+        if (!result.getErrors().isEmpty()) {
+            throw new IllegalStateException(result.getErrors().toString());
+        }
+        Map<?, ?> reservations = (Map<?, ?>) result.<Map<?, ?>>getData().get("reservations");
+        List<?> edges = (List<?>) reservations.get("edges");
+        if (edges.size() != 20) {
+            throw new IllegalStateException("Expected 20 reservations, got " + edges.size());
+        }
+    }
+}
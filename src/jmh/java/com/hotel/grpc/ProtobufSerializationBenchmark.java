@@ -0,0 +1,71 @@
+package com.hotel.grpc;
+
+import com.hotel.benchmark.ReservationFixtures;
+import com.hotel.dto.ReservationDTO;
+import com.hotel.grpc.generated.ReservationProto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the gRPC response path: DTO to protobuf conversion, then encoding.
+ * Lists are written length-delimited, as the ListReservations stream frames them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtobufSerializationBenchmark {
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private List<ReservationDTO> dtos;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        dtos = ReservationFixtures.reservationDTOs(size);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public List<ReservationProto> convert() {
+        List<ReservationProto> messages = new ArrayList<>(dtos.size());
+        for (ReservationDTO dto : dtos) {
+            messages.add(ReservationGrpcServiceImpl.convertToProto(dto));
+        }
+        return messages;
+    }
+
+    @Benchmark
+    public byte[] convertAndEncode() throws IOException {
+        return encode();
+    }
+
+    @Benchmark
+    public List<ReservationProto> decode() throws IOException {
+        List<ReservationProto> messages = new ArrayList<>(size);
+        ByteArrayInputStream in = new ByteArrayInputStream(encoded);
+        ReservationProto message;
+        while ((message = ReservationProto.parseDelimitedFrom(in)) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private byte[] encode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * dtos.size());
+        for (ReservationDTO dto : dtos) {
+            ReservationGrpcServiceImpl.convertToProto(dto).writeDelimitedTo(out);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotel.journal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to rebuild the reservation state from a journal of 10M changes
+ * (60% creates, 30% updates, 10% deletes), replayed in full or from a
+ * snapshot taken at 90% of them. Excludes loading the result into the
+ * database, which JournalRecovery does in JDBC batches.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JournalRecoveryBenchmark {
+
+    private static final int SEGMENT_SIZE = 256 << 20;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    @Param({"10000000"})
+    private int events;
+
+    @Param({"false", "true"})
+    private boolean snapshot;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        SplittableRandom random = new SplittableRandom(42);
+        long[] live = new long[events];
+        int liveCount = 0;
+        long nextId = 1;
+        int snapshotAt = snapshot ? events / 10 * 9 : -1;
+        try (MappedJournal journal = MappedJournal.open(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < events; i++) {
+                if (i == snapshotAt) {
+                    writeSnapshot(journal);
+                }
+                int roll = random.nextInt(10);
+                if (liveCount == 0 || roll < 6) {
+                    long id = nextId++;
+                    live[liveCount++] = id;
+                    journal.append(upsert(id, random));
+                } else if (roll < 9) {
+                    journal.append(upsert(live[random.nextInt(liveCount)], random));
+                } else {
+                    int index = random.nextInt(liveCount);
+                    journal.append(JournalEntry.delete(live[index]));
+                    live[index] = live[--liveCount];
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Map<Long, JournalEntry> replay() throws IOException {
+        return JournalReplayer.replay(directory).reservations();
+    }
+
+    private void writeSnapshot(MappedJournal journal) throws IOException {
+        JournalReplayer.Replay state = JournalReplayer.replay(directory);
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(directory, state.lastSeq())) {
+            for (JournalEntry entry : state.reservations().values()) {
+                writer.write(entry);
+            }
+            writer.commit();
+        }
+        journal.deleteSegmentsThrough(state.lastSeq());
+    }
+
+    private static JournalEntry upsert(long id, SplittableRandom random) {
+        LocalDate dateDebut = FIRST_DAY.plusDays(random.nextInt(3650));
+        return JournalEntry.upsert(id, 1 + random.nextInt(100), 1 + random.nextInt(500),
+                dateDebut, dateDebut.plusDays(1 + random.nextInt(14)), "Non-smoking, high floor", 0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotel.mapper;
+
+import com.hotel.benchmark.ReservationFixtures;
+import com.hotel.dto.ReservationDTO;
+import com.hotel.entity.Reservation;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping reservation entities to DTOs, shared by every protocol
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationMapperBenchmark {
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private final ReservationMapper mapper = Mappers.getMapper(ReservationMapper.class);
+    private List<Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        reservations = ReservationFixtures.reservations(size);
+    }
+
+    @Benchmark
+    public List<ReservationDTO> toReservationDTO() {
+        List<ReservationDTO> dtos = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            dtos.add(mapper.toReservationDTO(reservation));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ReservationDTO> toReservationRefDTO() {
+        List<ReservationDTO> dtos = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            dtos.add(mapper.toReservationRefDTO(reservation));
+        }
+        return dtos;
+    }
+}
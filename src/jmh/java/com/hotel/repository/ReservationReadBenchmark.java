@@ -0,0 +1,180 @@
+package com.hotel.repository;
+
+import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFilter;
+import com.hotel.entity.Reservation;
+import com.hotel.mapper.ReservationMapper;
+import com.hotel.mapper.ReservationMapperImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading one keyset page of reservations in a read-only transaction, as
+ * ReservationServiceImpl did before projections (fetch-joined entities mapped
+ * to DTOs), as it does now (ReservationView records mapped to DTOs), and as a
+ * sparse fieldset of three columns. Run with -prof gc to compare the
+ * allocation per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationReadBenchmark {
+
+    private static final int RESERVATIONS = 10_000;
+    private static final String ENTITIES = "SELECT r FROM Reservation r JOIN FETCH r.client JOIN FETCH r.chambre "
+            + "WHERE r.id > :after ORDER BY r.id";
+
+    @Param({"50", "500"})
+    private int page;
+
+    private AnnotationConfigApplicationContext context;
+    private ReservationRepository repository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private final ReservationMapper mapper = new ReservationMapperImpl();
+    private final ReservationFields fields = ReservationFields.parse("dateDebut,dateFin,chambre.id");
+    private final ReservationFilter filter = new ReservationFilter();
+    private long after;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(PersistenceConfig.class);
+        repository = context.getBean(ReservationRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        seed(context.getBean(DataSource.class));
+        // A page from the middle of the table
+        after = RESERVATIONS / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ReservationDTO> entities() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(ENTITIES, Reservation.class)
+                .setParameter("after", after)
+                .setMaxResults(page)
+                .getResultList()
+                .stream()
+                .map(mapper::toReservationDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ReservationDTO> views() {
+        return transactionTemplate.execute(status -> repository.findViewsAfter(after, Limit.of(page))
+                .stream()
+                .map(mapper::toReservationDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sparseFields() {
+        return transactionTemplate.execute(status -> repository.findFieldsAfter(fields, filter, after, page));
+    }
+
+    private static void seed(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        int clients = RESERVATIONS / 10;
+        int rooms = RESERVATIONS / 20;
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= clients; i++) {
+            rows.add(new Object[]{i, "Nom" + i, "Prenom" + i, "client" + i + "@example.com", "0600000000"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO clients (id, nom, prenom, email, telephone) VALUES (?, ?, ?, ?, ?)",
+                rows);
+        rows.clear();
+        for (int i = 1; i <= rooms; i++) {
+            rows.add(new Object[]{i, "DOUBLE", BigDecimal.valueOf(120), true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO chambres (id, type, prix, disponible) VALUES (?, ?, ?, ?)", rows);
+        rows.clear();
+        LocalDate firstDay = LocalDate.of(2025, 1, 1);
+        for (int i = 1; i <= RESERVATIONS; i++) {
+            LocalDate dateDebut = firstDay.plusDays(i / rooms * 3L);
+            rows.add(new Object[]{i, 1 + i % clients, 1 + i % rooms, dateDebut, dateDebut.plusDays(2),
+                    "Non-smoking", 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (id, client_id, chambre_id, date_debut, date_fin, "
+                + "preferences, version) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * The JPA setup of the application without the rest of it: an H2
+     * database, Hibernate and the Spring Data repositories. Not a
+     * {@code @Configuration}, so that benchmarks booting the whole application
+     * do not pick it up through component scanning.
+     */
+    @EnableJpaRepositories(basePackageClasses = ReservationRepository.class)
+    static class PersistenceConfig {
+
+        @Bean(destroyMethod = "close")
+        public HikariDataSource dataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:read-benchmark;DB_CLOSE_DELAY=-1");
+            return dataSource;
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource,
+                ConfigurableListableBeanFactory beanFactory) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan("com.hotel.entity");
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.getJpaPropertyMap().put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+            // Column names as Spring Boot derives them (date_debut, client_id, ...)
+            factory.getJpaPropertyMap().put(AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                    new CamelCaseToUnderscoresNamingStrategy());
+            // The entity listeners of clients and rooms are Spring beans
+            factory.getJpaPropertyMap().put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
+            return factory;
+        }
+
+        @Bean
+        public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new NoOpCacheManager();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotel.service;
+
+import com.hotel.HotelReservationApplication;
+import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.entity.Chambre;
+import com.hotel.entity.Client;
+import com.hotel.repository.ChambreRepository;
+import com.hotel.repository.ClientRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch ingestion throughput in reservations per second, through
+ * ReservationService.createReservations as behind POST
+ * /api/reservations/batch: room locks, overlap checks, JDBC batch inserts and
+ * mapping, one transaction per batch of 1000. Each batch books the next free
+ * night of every available room in turn, so bookings never conflict. The
+ * target is at least 10,000 reservations per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchIngestionBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2100, 1, 1);
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+    private List<Long> clients;
+    private List<Long> rooms;
+    private LocalDate nextDay = FIRST_DAY;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HotelReservationApplication.class)
+                .run("--server.port=0", "--grpc.server.port=-1", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN", "--logging.level.com.hotel=WARN");
+        reservationService = context.getBean(ReservationService.class);
+        clients = context.getBean(ClientRepository.class).findAll().stream()
+                .map(Client::getId).toList();
+        rooms = context.getBean(ChambreRepository.class).findByDisponibleTrue().stream()
+                .map(Chambre::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int createBatch() {
+        List<ReservationRequestDTO> requests = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            if (i > 0 && i % rooms.size() == 0) {
+                nextDay = nextDay.plusDays(2);
+            }
+            requests.add(ReservationRequestDTO.builder()
+                    .clientId(clients.get(i % clients.size()))
+                    .chambreId(rooms.get(i % rooms.size()))
+                    .dateDebut(nextDay)
+                    .dateFin(nextDay.plusDays(1))
+                    .build());
+        }
+        nextDay = nextDay.plusDays(2);
+        return reservationService.createReservations(requests).size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.hotel.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking throughput against 1 to 8 in-memory H2 shards, routed by
+ * ShardRouter and ShardRoutingDataSource as in the application. Each booking
+ * is an overlap check and an insert in one transaction on the shard of its
+ * room. Every thread books its own rooms, spread over all buckets, so
+ * bookings never conflict and only the databases are shared. Scaling with the
+ * shard count needs at least as many cores as shards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ShardedWriteBenchmark {
+
+    private static final int ROOMS_PER_THREAD = ShardRouter.BUCKETS;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    private ShardRoutingDataSource routingDataSource;
+    private ShardRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final AtomicInteger threads = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:benchmark-" + shards + "-" + shard + ";DB_CLOSE_DELAY=-1");
+            dataSource.setMaximumPoolSize(8);
+            dataSources.add(dataSource);
+        }
+        routingDataSource = new ShardRoutingDataSource(dataSources, new SimpleMeterRegistry());
+        router = new ShardRouter(shards, Runnable::run, 5000);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        for (int shard = 0; shard < shards; shard++) {
+            router.run(shard, () -> {
+                jdbcTemplate.execute("CREATE TABLE reservations (id BIGINT PRIMARY KEY, client_id BIGINT NOT NULL, "
+                        + "chambre_id BIGINT NOT NULL, date_debut DATE NOT NULL, date_fin DATE NOT NULL, "
+                        + "preferences VARCHAR(500))");
+                jdbcTemplate.execute("CREATE INDEX idx_reservations_chambre ON reservations (chambre_id, date_debut)");
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (int shard = 0; shard < shards; shard++) {
+            router.run(shard, () -> jdbcTemplate.execute("DROP ALL OBJECTS"));
+        }
+        routingDataSource.destroy();
+    }
+
+    @State(Scope.Thread)
+    public static class Booker {
+
+        private long firstRoom;
+        private int next;
+        private final LocalDate[] nextDays = new LocalDate[ROOMS_PER_THREAD];
+
+        @Setup(Level.Trial)
+        public void setUp(ShardedWriteBenchmark benchmark) {
+            firstRoom = 1 + (long) benchmark.threads.getAndIncrement() * ROOMS_PER_THREAD;
+            Arrays.fill(nextDays, FIRST_DAY);
+        }
+    }
+
+    @Benchmark
+    public int book(Booker booker) {
+        int index = booker.next;
+        booker.next = (index + 1) % ROOMS_PER_THREAD;
+        long room = booker.firstRoom + index;
+        LocalDate dateDebut = booker.nextDays[index];
+        LocalDate dateFin = dateDebut.plusDays(1);
+        booker.nextDays[index] = dateFin.plusDays(1);
+        return router.call(router.shardOf(room), () -> transactionTemplate.execute(status -> {
+            Integer overlapping = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations "
+                    + "WHERE chambre_id = ? AND date_debut <= ? AND date_fin >= ?",
+                    Integer.class, room, dateFin, dateDebut);
+            if (overlapping != null && overlapping > 0) {
+                throw new IllegalStateException("Room " + room + " is already booked");
+            }
+            return jdbcTemplate.update("INSERT INTO reservations (id, client_id, chambre_id, date_debut, date_fin, "
+                    + "preferences) VALUES (?, ?, ?, ?, ?, ?)", ids.incrementAndGet(), 1L, room, dateDebut, dateFin,
+                    "Non-smoking");
+        }));
+    }
+}
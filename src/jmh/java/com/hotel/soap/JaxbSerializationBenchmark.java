@@ -0,0 +1,97 @@
+package com.hotel.soap;
+
+import com.hotel.benchmark.ReservationFixtures;
+import com.hotel.dto.ReservationDTO;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the SOAP response body: DTO to JAXB DTO conversion, then XML
+ * marshalling. Envelope handling by CXF is not included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JaxbSerializationBenchmark {
+
+    private static final byte[] OPEN = "<reservations>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLOSE = "</reservations>".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"1", "1000"})
+    private int size;
+
+    private JAXBContext context;
+    private XMLInputFactory inputFactory;
+    private List<ReservationDTO> dtos;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws JAXBException {
+        context = JAXBContext.newInstance(ReservationSoapDTO.class);
+        inputFactory = XMLInputFactory.newFactory();
+        dtos = ReservationFixtures.reservationDTOs(size);
+        encoded = marshal();
+    }
+
+    @Benchmark
+    public List<ReservationSoapDTO> convert() {
+        List<ReservationSoapDTO> soapDTOs = new ArrayList<>(dtos.size());
+        for (ReservationDTO dto : dtos) {
+            soapDTOs.add(ReservationSoapServiceImpl.convertToSoapDTO(dto));
+        }
+        return soapDTOs;
+    }
+
+    @Benchmark
+    public byte[] convertAndMarshal() throws JAXBException {
+        return marshal();
+    }
+
+    @Benchmark
+    public List<ReservationSoapDTO> unmarshal() throws JAXBException, XMLStreamException {
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(encoded));
+        List<ReservationSoapDTO> soapDTOs = new ArrayList<>(size);
+        reader.nextTag();
+        reader.nextTag();
+        while (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            soapDTOs.add(unmarshaller.unmarshal(reader, ReservationSoapDTO.class).getValue());
+            // The unmarshaller stops on the event following the element it read
+            while (!reader.isStartElement() && !reader.isEndElement()) {
+                reader.next();
+            }
+        }
+        reader.close();
+        return soapDTOs;
+    }
+
+    private byte[] marshal() throws JAXBException {
+        // Marshallers are not thread-safe; CXF creates one per message as well
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512 * dtos.size());
+        out.writeBytes(OPEN);
+        for (ReservationDTO dto : dtos) {
+            marshaller.marshal(ReservationSoapServiceImpl.convertToSoapDTO(dto), out);
+        }
+        out.writeBytes(CLOSE);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,9 @@
+package com.hotel.loadtest;
+
+import java.time.LocalDate;
+
+/**
+ * Payload of a create or update operation
+ */
+public record Booking(long clientId, long chambreId, LocalDate dateDebut, LocalDate dateFin, String preferences) {
+}
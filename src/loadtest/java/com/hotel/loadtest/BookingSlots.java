@@ -0,0 +1,34 @@
+package com.hotel.loadtest;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out bookings that never overlap, so creates and updates are not
+ * rejected as conflicts. Slots rotate over the rooms, each taking two days
+ * of its room's calendar.
+ */
+public final class BookingSlots {
+
+    private final AtomicLong next = new AtomicLong();
+    private final long[] clientIds;
+    private final long[] chambreIds;
+    private final LocalDate firstDate;
+
+    public BookingSlots(LoadTestConfig config) {
+        this.clientIds = config.clientIds();
+        this.chambreIds = config.chambreIds();
+        this.firstDate = config.firstDate();
+    }
+
+    public Booking next() {
+        long slot = next.getAndIncrement();
+        LocalDate dateDebut = firstDate.plusDays(slot / chambreIds.length * 3);
+        return new Booking(
+                clientIds[(int) (slot % clientIds.length)],
+                chambreIds[(int) (slot % chambreIds.length)],
+                dateDebut,
+                dateDebut.plusDays(1),
+                "Load test");
+    }
+}
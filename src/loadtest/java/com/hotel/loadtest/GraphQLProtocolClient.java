@@ -0,0 +1,82 @@
+package com.hotel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Booking operations over GraphQL (/graphql), selecting the full reservation
+ * as a typical client screen would
+ */
+class GraphQLProtocolClient extends HttpProtocolClient {
+
+    private static final String FIELDS =
+            "{ id dateDebut dateFin preferences client { id nom prenom email } chambre { id type prix } }";
+
+    private static final String CREATE =
+            "mutation($input: ReservationInput!) { createReservation(input: $input) " + FIELDS + " }";
+    private static final String READ =
+            "query($id: ID!) { reservationById(id: $id) " + FIELDS + " }";
+    private static final String UPDATE =
+            "mutation($id: ID!, $input: ReservationInput!) { updateReservation(id: $id, input: $input) " + FIELDS + " }";
+    private static final String DELETE =
+            "mutation($id: ID!) { deleteReservation(id: $id) }";
+
+    GraphQLProtocolClient(LoadTestConfig config) {
+        super(config);
+    }
+
+    @Override
+    public long create(Booking booking) throws Exception {
+        return execute(CREATE, Map.of("input", toInput(booking))).get("createReservation").get("id").asLong();
+    }
+
+    @Override
+    public void read(long id) throws Exception {
+        if (execute(READ, Map.of("id", id)).get("reservationById").isNull()) {
+            throw new LoadTestException("Reservation " + id + " not found");
+        }
+    }
+
+    @Override
+    public void update(long id, Booking booking) throws Exception {
+        execute(UPDATE, Map.of("id", id, "input", toInput(booking)));
+    }
+
+    @Override
+    public void delete(long id) throws Exception {
+        execute(DELETE, Map.of("id", id));
+    }
+
+    private JsonNode execute(String query, Map<String, Object> variables) throws Exception {
+        String body = send(request("/graphql")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        objectMapper.writeValueAsString(Map.of("query", query, "variables", variables))))
+                .build());
+        JsonNode response = objectMapper.readTree(body);
+        JsonNode errors = response.get("errors");
+        if (errors != null && !errors.isEmpty()) {
+            JsonNode retryAfter = errors.get(0).path("extensions").path("retryAfter");
+            if (retryAfter.isNumber()) {
+                throw new RejectedException("GraphQL shed: " + errors.get(0).path("message").asText(),
+                        Duration.ofSeconds(retryAfter.asLong()));
+            }
+            throw new LoadTestException("GraphQL error: " + errors.get(0).path("message").asText());
+        }
+        return response.get("data");
+    }
+
+    private static Map<String, Object> toInput(Booking booking) {
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("clientId", booking.clientId());
+        input.put("chambreId", booking.chambreId());
+        input.put("dateDebut", booking.dateDebut().toString());
+        input.put("dateFin", booking.dateFin().toString());
+        input.put("preferences", booking.preferences());
+        return input;
+    }
+}
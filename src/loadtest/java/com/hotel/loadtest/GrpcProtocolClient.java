@@ -0,0 +1,133 @@
+package com.hotel.loadtest;
+
+import com.hotel.grpc.generated.CreateReservationRequest;
+import com.hotel.grpc.generated.DeleteReservationRequest;
+import com.hotel.grpc.generated.GetReservationRequest;
+import com.hotel.grpc.generated.ReservationGrpcServiceGrpc;
+import com.hotel.grpc.generated.ReservationResponse;
+import com.hotel.grpc.generated.UpdateReservationRequest;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Booking operations over gRPC, multiplexed on a single channel.
+ * Failures surface as StatusRuntimeException, except calls shed with
+ * RESOURCE_EXHAUSTED, which surface as RejectedException. Each worker sends its thread
+ * name as x-client-id, so an application that trusts the generator's address rate
+ * limits workers separately.
+ */
+class GrpcProtocolClient implements ProtocolClient {
+
+    private static final Metadata.Key<String> RETRY_PUSHBACK =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final ManagedChannel channel;
+    private final ReservationGrpcServiceGrpc.ReservationGrpcServiceBlockingStub stub;
+
+    GrpcProtocolClient(LoadTestConfig config) {
+        this.channel = ManagedChannelBuilder.forAddress(config.host(), config.grpcPort())
+                .usePlaintext()
+                .intercept(new ClientIdInterceptor())
+                .build();
+        this.stub = ReservationGrpcServiceGrpc.newBlockingStub(channel);
+    }
+
+    @Override
+    public long create(Booking booking) {
+        ReservationResponse response = call(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .createReservation(CreateReservationRequest.newBuilder()
+                        .setClientId(booking.clientId())
+                        .setChambreId(booking.chambreId())
+                        .setDateDebut(booking.dateDebut().toString())
+                        .setDateFin(booking.dateFin().toString())
+                        .setPreferences(booking.preferences())
+                        .build()));
+        return response.getReservation().getId();
+    }
+
+    @Override
+    public void read(long id) {
+        call(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .getReservation(GetReservationRequest.newBuilder().setId(id).build()));
+    }
+
+    @Override
+    public void update(long id, Booking booking) {
+        call(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .updateReservation(UpdateReservationRequest.newBuilder()
+                        .setId(id)
+                        .setClientId(booking.clientId())
+                        .setChambreId(booking.chambreId())
+                        .setDateDebut(booking.dateDebut().toString())
+                        .setDateFin(booking.dateFin().toString())
+                        .setPreferences(booking.preferences())
+                        .build()));
+    }
+
+    @Override
+    public void delete(long id) {
+        if (!call(() -> stub.withDeadlineAfter(30, TimeUnit.SECONDS)
+                .deleteReservation(DeleteReservationRequest.newBuilder().setId(id).build()))
+                .getSuccess()) {
+            throw new LoadTestException("gRPC delete of " + id + " failed");
+        }
+    }
+
+    @Override
+    public void close() {
+        channel.shutdown();
+        try {
+            channel.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Issue a call, turning RESOURCE_EXHAUSTED into a rejection with its retry pushback
+     */
+    private static <T> T call(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() != Status.Code.RESOURCE_EXHAUSTED) {
+                throw e;
+            }
+            String pushback = e.getTrailers() != null ? e.getTrailers().get(RETRY_PUSHBACK) : null;
+            throw new RejectedException("gRPC shed: " + e.getStatus().getDescription(),
+                    pushback != null ? Duration.ofMillis(Long.parseLong(pushback)) : Duration.ZERO);
+        }
+    }
+
+    private static final class ClientIdInterceptor implements ClientInterceptor {
+
+        private static final Metadata.Key<String> CLIENT_ID =
+                Metadata.Key.of("x-client-id", Metadata.ASCII_STRING_MARSHALLER);
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                CallOptions callOptions, Channel next) {
+            String clientId = Thread.currentThread().getName();
+            return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RespT> responseListener, Metadata headers) {
+                    headers.put(CLIENT_ID, clientId);
+                    super.start(responseListener, headers);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hotel.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Base for the HTTP protocols (REST, SOAP, GraphQL), sharing one pooled client.
+ * Each worker sends its thread name as X-Client-Id, so an application that
+ * trusts the generator's address rate limits workers separately.
+ */
+abstract class HttpProtocolClient implements ProtocolClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    protected final ObjectMapper objectMapper = new ObjectMapper();
+    protected final String baseUrl;
+    private final HttpClient httpClient;
+
+    protected HttpProtocolClient(LoadTestConfig config) {
+        this.baseUrl = config.httpBaseUrl();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    protected HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("X-Client-Id", Thread.currentThread().getName());
+    }
+
+    /**
+     * Send a request and return the body, failing on any non-2xx status.
+     * A response with Retry-After was shed by admission control.
+     */
+    protected String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+        if (retryAfter.isPresent()) {
+            throw new RejectedException(request.method() + " " + request.uri().getPath()
+                    + " was shed with " + response.statusCode(), Duration.ofSeconds(Long.parseLong(retryAfter.get())));
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new LoadTestException(request.method() + " " + request.uri().getPath()
+                    + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+}
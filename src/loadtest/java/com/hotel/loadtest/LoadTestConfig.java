@@ -0,0 +1,159 @@
+package com.hotel.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, read from --key=value arguments.
+ * Every setting has a default matching application.properties and DataInitializer.
+ */
+public final class LoadTestConfig {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("host", "localhost");
+        DEFAULTS.put("http-port", "8081");
+        DEFAULTS.put("grpc-port", "9090");
+        DEFAULTS.put("protocols", "rest,soap,graphql,grpc");
+        DEFAULTS.put("concurrency", "16");
+        DEFAULTS.put("threads", "platform");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("mix", "read=70,create=10,update=10,delete=10");
+        DEFAULTS.put("client-ids", "1,2,3");
+        DEFAULTS.put("chambre-ids", "1,2,3,4");
+        DEFAULTS.put("first-date", "2100-01-01");
+        DEFAULTS.put("retry-after", "honor");
+        DEFAULTS.put("report", "target/loadtest-report.json");
+        DEFAULTS.put("label", "");
+    }
+
+    private final Map<String, String> values;
+
+    private LoadTestConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestConfig fromArgs(String... args) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "', expected --key=value");
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown setting '" + key + "', known: " + DEFAULTS.keySet());
+            }
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    public String host() {
+        return values.get("host");
+    }
+
+    public int httpPort() {
+        return Integer.parseInt(values.get("http-port"));
+    }
+
+    public int grpcPort() {
+        return Integer.parseInt(values.get("grpc-port"));
+    }
+
+    public String httpBaseUrl() {
+        return "http://" + host() + ":" + httpPort();
+    }
+
+    public List<Protocol> protocols() {
+        List<Protocol> protocols = new ArrayList<>();
+        for (String name : values.get("protocols").split(",")) {
+            protocols.add(Protocol.valueOf(name.trim().toUpperCase()));
+        }
+        return protocols;
+    }
+
+    public int concurrency() {
+        return Integer.parseInt(values.get("concurrency"));
+    }
+
+    /**
+     * Whether workers run on virtual threads (Java 21+), needed to hold
+     * thousands of concurrent connections from a single generator
+     */
+    public boolean virtualThreads() {
+        String threads = values.get("threads");
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("Invalid threads '" + threads + "', expected platform or virtual");
+        }
+        return threads.equals("virtual");
+    }
+
+    public Duration warmup() {
+        return DurationStyle.detectAndParse(values.get("warmup"));
+    }
+
+    public Duration duration() {
+        return DurationStyle.detectAndParse(values.get("duration"));
+    }
+
+    public WorkloadMix mix() {
+        return WorkloadMix.parse(values.get("mix"));
+    }
+
+    public long[] clientIds() {
+        return parseIds(values.get("client-ids"));
+    }
+
+    public long[] chambreIds() {
+        return parseIds(values.get("chambre-ids"));
+    }
+
+    /**
+     * First day handed out to created and updated bookings. Runs against an
+     * instance that already holds load test data need a later date.
+     */
+    public LocalDate firstDate() {
+        return LocalDate.parse(values.get("first-date"));
+    }
+
+    /**
+     * Whether a worker whose operation was shed waits the Retry-After delay
+     * before its next one, rather than retrying at once
+     */
+    public boolean honorRetryAfter() {
+        String retryAfter = values.get("retry-after");
+        if (!retryAfter.equals("honor") && !retryAfter.equals("ignore")) {
+            throw new IllegalArgumentException("Invalid retry-after '" + retryAfter + "', expected honor or ignore");
+        }
+        return retryAfter.equals("honor");
+    }
+
+    public Path report() {
+        return Path.of(values.get("report"));
+    }
+
+    /**
+     * Free-form run label (e.g. a commit id) copied into the report
+     */
+    public String label() {
+        return values.get("label");
+    }
+
+    public Map<String, String> asMap() {
+        return new LinkedHashMap<>(values);
+    }
+
+    private static long[] parseIds(String ids) {
+        return Arrays.stream(ids.split(",")).map(String::trim).mapToLong(Long::parseLong).toArray();
+    }
+}
@@ -0,0 +1,11 @@
+package com.hotel.loadtest;
+
+/**
+ * Failed operation, e.g. an error status or a business rejection
+ */
+public class LoadTestException extends RuntimeException {
+
+    public LoadTestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,104 @@
+package com.hotel.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test results, as a console table and a JSON report.
+ * Latencies are in milliseconds and throughputs in successful operations per second.
+ */
+public final class LoadTestReport {
+
+    private final LoadTestConfig config;
+    private final List<ProtocolResult> results;
+    private final Instant finishedAt = Instant.now();
+
+    public LoadTestReport(LoadTestConfig config, List<ProtocolResult> results) {
+        this.config = config;
+        this.results = results;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-8s %-7s %10s %8s %8s %10s %9s %9s %9s %9s%n",
+                "PROTOCOL", "OP", "COUNT", "ERRORS", "SHED", "OPS/S", "P50 MS", "P99 MS", "P999 MS", "MAX MS");
+        for (ProtocolResult result : results) {
+            result.operations().forEach((operation, stats) -> {
+                Histogram latencies = stats.latencies();
+                out.printf("%-8s %-7s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        result.protocol(), operation, stats.successes(), stats.errors(), stats.rejections(),
+                        result.throughput(stats.successes()),
+                        millis(latencies.getValueAtPercentile(50)),
+                        millis(latencies.getValueAtPercentile(99)),
+                        millis(latencies.getValueAtPercentile(99.9)),
+                        millis(latencies.getMaxValue()));
+                if (stats.firstError() != null) {
+                    out.printf("         first error: %s%n", stats.firstError());
+                }
+            });
+            out.printf("%-8s %-7s %10d %8d %8d %10.1f%n", result.protocol(), "TOTAL", result.totalSuccesses(),
+                    result.totalErrors(), result.totalRejections(), result.throughput(result.totalSuccesses()));
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.label());
+        report.put("finishedAt", finishedAt.toString());
+        report.put("config", config.asMap());
+
+        Map<String, Object> protocols = new LinkedHashMap<>();
+        for (ProtocolResult result : results) {
+            Map<String, Object> operations = new LinkedHashMap<>();
+            result.operations().forEach((operation, stats) ->
+                    operations.put(operation.name().toLowerCase(), toMap(result, stats)));
+
+            Map<String, Object> protocol = new LinkedHashMap<>();
+            protocol.put("throughput", result.throughput(result.totalSuccesses()));
+            protocol.put("count", result.totalSuccesses());
+            protocol.put("errors", result.totalErrors());
+            protocol.put("rejections", result.totalRejections());
+            protocol.put("operations", operations);
+            protocols.put(result.protocol().name().toLowerCase(), protocol);
+        }
+        report.put("protocols", protocols);
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private static Map<String, Object> toMap(ProtocolResult result, OperationStats stats) {
+        Histogram latencies = stats.latencies();
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("count", stats.successes());
+        operation.put("errors", stats.errors());
+        operation.put("rejections", stats.rejections());
+        operation.put("throughput", result.throughput(stats.successes()));
+        operation.put("meanMs", stats.successes() == 0 ? 0 : latencies.getMean() / 1000.0);
+        operation.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+        operation.put("p90Ms", millis(latencies.getValueAtPercentile(90)));
+        operation.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+        operation.put("p999Ms", millis(latencies.getValueAtPercentile(99.9)));
+        operation.put("maxMs", millis(latencies.getMaxValue()));
+        if (stats.firstError() != null) {
+            operation.put("firstError", stats.firstError());
+        }
+        return operation;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
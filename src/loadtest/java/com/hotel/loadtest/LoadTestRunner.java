@@ -0,0 +1,163 @@
+package com.hotel.loadtest;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Closed-loop load generator for the running application.
+ * Protocols are measured one after another with the same workload: each phase
+ * starts concurrency workers that issue operations back to back for the warmup
+ * and then the measured duration. Only operations started in the measured window
+ * are recorded.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--duration=60s --concurrency=32"
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        WorkloadMix mix = config.mix();
+        BookingSlots slots = new BookingSlots(config);
+
+        List<ProtocolResult> results = new ArrayList<>();
+        for (Protocol protocol : config.protocols()) {
+            System.out.printf("%s: %d %s workers, %ss warmup, %ss measured%n", protocol, config.concurrency(),
+                    config.virtualThreads() ? "virtual" : "platform",
+                    config.warmup().toSeconds(), config.duration().toSeconds());
+            results.add(run(protocol, config, mix, slots));
+        }
+
+        LoadTestReport report = new LoadTestReport(config, results);
+        report.print(System.out);
+        report.write(config.report());
+        System.out.println("Report written to " + config.report().toAbsolutePath());
+    }
+
+    private static ProtocolResult run(Protocol protocol, LoadTestConfig config, WorkloadMix mix, BookingSlots slots)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + config.warmup().toNanos();
+        long measureUntil = measureFrom + config.duration().toNanos();
+
+        String threadPrefix = "loadtest-" + protocol.name().toLowerCase() + "-";
+        ThreadFactory threadFactory = config.virtualThreads()
+                ? new VirtualThreadTaskExecutor(threadPrefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(threadPrefix);
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        try (ProtocolClient client = protocol.newClient(config)) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                Worker worker = new Worker(client, mix, slots, config.honorRetryAfter(), measureFrom, measureUntil);
+                Thread thread = threadFactory.newThread(worker);
+                workers.add(worker);
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        Map<Operation, OperationStats> merged = new EnumMap<>(Operation.class);
+        for (Worker worker : workers) {
+            worker.stats.forEach((operation, stats) ->
+                    merged.computeIfAbsent(operation, key -> new OperationStats()).add(stats));
+        }
+        return new ProtocolResult(protocol, config.duration(), merged);
+    }
+
+    /**
+     * Issues operations back to back on reservations it created itself, so
+     * reads, updates and deletes never race with other workers
+     */
+    private static final class Worker implements Runnable {
+
+        private final ProtocolClient client;
+        private final WorkloadMix mix;
+        private final BookingSlots slots;
+        private final boolean honorRetryAfter;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        private final List<Long> owned = new ArrayList<>();
+
+        Worker(ProtocolClient client, WorkloadMix mix, BookingSlots slots, boolean honorRetryAfter,
+                long measureFrom, long measureUntil) {
+            this.client = client;
+            this.mix = mix;
+            this.slots = slots;
+            this.honorRetryAfter = honorRetryAfter;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long start;
+            while ((start = System.nanoTime()) < measureUntil) {
+                Operation operation = owned.isEmpty() ? Operation.CREATE : mix.next(random);
+                Exception error = null;
+                try {
+                    execute(operation, random);
+                } catch (Exception e) {
+                    error = e;
+                }
+                if (start >= measureFrom) {
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                    OperationStats operationStats = stats.computeIfAbsent(operation, key -> new OperationStats());
+                    if (error == null) {
+                        operationStats.recordSuccess(latencyMicros);
+                    } else if (error instanceof RejectedException) {
+                        operationStats.recordRejection();
+                    } else {
+                        operationStats.recordError(error);
+                    }
+                }
+                if (honorRetryAfter && error instanceof RejectedException rejected) {
+                    backOff(rejected.retryAfter());
+                }
+            }
+        }
+
+        /**
+         * Wait before the next operation as a well-behaved client would, but not past the measured window
+         */
+        private void backOff(Duration retryAfter) {
+            long sleepNanos = Math.min(retryAfter.toNanos(), measureUntil - System.nanoTime());
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+            }
+        }
+
+        private void execute(Operation operation, ThreadLocalRandom random) throws Exception {
+            switch (operation) {
+                case CREATE -> owned.add(client.create(slots.next()));
+                case READ -> client.read(owned.get(random.nextInt(owned.size())));
+                case UPDATE -> client.update(owned.get(random.nextInt(owned.size())), slots.next());
+                case DELETE -> {
+                    int index = random.nextInt(owned.size());
+                    long id = owned.get(index);
+                    owned.set(index, owned.get(owned.size() - 1));
+                    owned.remove(owned.size() - 1);
+                    client.delete(id);
+                }
+            }
+        }
+    }
+}
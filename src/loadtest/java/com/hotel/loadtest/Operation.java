@@ -0,0 +1,11 @@
+package com.hotel.loadtest;
+
+/**
+ * Booking operations issued by the load generator
+ */
+public enum Operation {
+    READ,
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,60 @@
+package com.hotel.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histogram (microseconds), error and rejection counts of one operation.
+ * Rejections are operations shed by admission control, which fail fast by design.
+ * Not thread-safe: each worker records into its own instance, merged at the end.
+ */
+public final class OperationStats {
+
+    private final Histogram latencies = new Histogram(3);
+    private long errors;
+    private long rejections;
+    private String firstError;
+
+    public void recordSuccess(long latencyMicros) {
+        latencies.recordValue(latencyMicros);
+    }
+
+    public void recordError(Exception error) {
+        errors++;
+        if (firstError == null) {
+            firstError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        }
+    }
+
+    public void recordRejection() {
+        rejections++;
+    }
+
+    public void add(OperationStats other) {
+        latencies.add(other.latencies);
+        errors += other.errors;
+        rejections += other.rejections;
+        if (firstError == null) {
+            firstError = other.firstError;
+        }
+    }
+
+    public Histogram latencies() {
+        return latencies;
+    }
+
+    public long successes() {
+        return latencies.getTotalCount();
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    public long rejections() {
+        return rejections;
+    }
+
+    public String firstError() {
+        return firstError;
+    }
+}
@@ -0,0 +1,23 @@
+package com.hotel.loadtest;
+
+import java.util.function.Function;
+
+/**
+ * Protocols exposed by the application, each with its client factory
+ */
+public enum Protocol {
+    REST(RestProtocolClient::new),
+    SOAP(SoapProtocolClient::new),
+    GRAPHQL(GraphQLProtocolClient::new),
+    GRPC(GrpcProtocolClient::new);
+
+    private final Function<LoadTestConfig, ProtocolClient> factory;
+
+    Protocol(Function<LoadTestConfig, ProtocolClient> factory) {
+        this.factory = factory;
+    }
+
+    public ProtocolClient newClient(LoadTestConfig config) {
+        return factory.apply(config);
+    }
+}
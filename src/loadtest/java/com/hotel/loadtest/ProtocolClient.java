@@ -0,0 +1,21 @@
+package com.hotel.loadtest;
+
+/**
+ * Issues booking operations over one protocol.
+ * Implementations are shared by all workers and must be thread-safe; any
+ * failure, including a business rejection, is reported by throwing.
+ */
+public interface ProtocolClient extends AutoCloseable {
+
+    long create(Booking booking) throws Exception;
+
+    void read(long id) throws Exception;
+
+    void update(long id, Booking booking) throws Exception;
+
+    void delete(long id) throws Exception;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.hotel.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Merged statistics of one protocol phase
+ */
+public record ProtocolResult(Protocol protocol, Duration measured, Map<Operation, OperationStats> operations) {
+
+    public long totalSuccesses() {
+        return operations.values().stream().mapToLong(OperationStats::successes).sum();
+    }
+
+    public long totalErrors() {
+        return operations.values().stream().mapToLong(OperationStats::errors).sum();
+    }
+
+    public long totalRejections() {
+        return operations.values().stream().mapToLong(OperationStats::rejections).sum();
+    }
+
+    public double throughput(long count) {
+        return count / (measured.toNanos() / 1e9);
+    }
+}
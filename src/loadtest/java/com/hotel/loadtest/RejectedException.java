@@ -0,0 +1,21 @@
+package com.hotel.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Operation shed by the application's admission control, counted apart from
+ * errors, with the delay the application asked for before retrying
+ */
+public class RejectedException extends LoadTestException {
+
+    private final Duration retryAfter;
+
+    public RejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
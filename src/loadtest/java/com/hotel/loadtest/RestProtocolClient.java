@@ -0,0 +1,54 @@
+package com.hotel.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Booking operations over REST (/api/reservations)
+ */
+class RestProtocolClient extends HttpProtocolClient {
+
+    private static final String PATH = "/api/reservations";
+
+    RestProtocolClient(LoadTestConfig config) {
+        super(config);
+    }
+
+    @Override
+    public long create(Booking booking) throws Exception {
+        String body = send(request(PATH)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(booking)))
+                .build());
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    @Override
+    public void read(long id) throws Exception {
+        send(request(PATH + "/" + id).GET().build());
+    }
+
+    @Override
+    public void update(long id, Booking booking) throws Exception {
+        send(request(PATH + "/" + id)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(toJson(booking)))
+                .build());
+    }
+
+    @Override
+    public void delete(long id) throws Exception {
+        send(request(PATH + "/" + id).DELETE().build());
+    }
+
+    private String toJson(Booking booking) throws Exception {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("clientId", booking.clientId());
+        request.put("chambreId", booking.chambreId());
+        request.put("dateDebut", booking.dateDebut().toString());
+        request.put("dateFin", booking.dateFin().toString());
+        request.put("preferences", booking.preferences());
+        return objectMapper.writeValueAsString(request);
+    }
+}
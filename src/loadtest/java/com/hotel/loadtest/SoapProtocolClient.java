@@ -0,0 +1,66 @@
+package com.hotel.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Booking operations over SOAP (/services/reservation), with hand-written
+ * envelopes so the client side adds no JAX-WS overhead to the measurements
+ */
+class SoapProtocolClient extends HttpProtocolClient {
+
+    private static final String PATH = "/services/reservation";
+    private static final Pattern RESERVATION_ID = Pattern.compile("<reservation>\\s*<id>(\\d+)</id>");
+
+    SoapProtocolClient(LoadTestConfig config) {
+        super(config);
+    }
+
+    @Override
+    public long create(Booking booking) throws Exception {
+        Matcher matcher = RESERVATION_ID.matcher(call("createReservation", fields(booking)));
+        if (!matcher.find()) {
+            throw new LoadTestException("SOAP createReservation response has no reservation id");
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    @Override
+    public void read(long id) throws Exception {
+        call("getReservationById", "<id>" + id + "</id>");
+    }
+
+    @Override
+    public void update(long id, Booking booking) throws Exception {
+        call("updateReservation", "<id>" + id + "</id>" + fields(booking));
+    }
+
+    @Override
+    public void delete(long id) throws Exception {
+        call("deleteReservation", "<id>" + id + "</id>");
+    }
+
+    /**
+     * Send an operation; faults come back as HTTP 500 and fail the call
+     */
+    private String call(String operation, String parameters) throws Exception {
+        String envelope = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\""
+                + " xmlns:ser=\"http://soap.hotel.com/\"><soapenv:Body>"
+                + "<ser:" + operation + ">" + parameters + "</ser:" + operation + ">"
+                + "</soapenv:Body></soapenv:Envelope>";
+        return send(request(PATH)
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .header("SOAPAction", "\"\"")
+                .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                .build());
+    }
+
+    private static String fields(Booking booking) {
+        return "<clientId>" + booking.clientId() + "</clientId>"
+                + "<chambreId>" + booking.chambreId() + "</chambreId>"
+                + "<dateDebut>" + booking.dateDebut() + "</dateDebut>"
+                + "<dateFin>" + booking.dateFin() + "</dateFin>"
+                + "<preferences>" + booking.preferences() + "</preferences>";
+    }
+}
@@ -0,0 +1,144 @@
+package com.hotel.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.exception.OverloadedException;
+import com.hotel.metrics.Outcomes;
+import com.hotel.metrics.ProtocolContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Admission control of protocol calls: a token bucket per caller, then an
+ * adaptive concurrency limit shared by all callers. Refused calls fail fast
+ * with an OverloadedException, which each protocol maps to its own status,
+ * instead of queueing for a database connection until they time out.
+ * Published as hotel.admission.limit, hotel.admission.inflight,
+ * hotel.admission.callers and hotel.admission.rejected{protocol,reason}.
+ */
+@Component
+@ConditionalOnProperty(name = "hotel.admission.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AdmissionControl {
+
+    public static final String REJECTED = "hotel.admission.rejected";
+
+    private final AimdLimit limit;
+    private final double clientRate;
+    private final int clientBurst;
+    private final Duration retryAfter;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry registry;
+
+    public AdmissionControl(
+            @Value("${hotel.admission.initial-limit:20}") int initialLimit,
+            @Value("${hotel.admission.min-limit:4}") int minLimit,
+            @Value("${hotel.admission.max-limit:200}") int maxLimit,
+            @Value("${hotel.admission.latency-threshold:100ms}") Duration latencyThreshold,
+            @Value("${hotel.admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${hotel.admission.retry-after:1s}") Duration retryAfter,
+            @Value("${hotel.admission.client-rate:500}") double clientRate,
+            @Value("${hotel.admission.client-burst:1000}") int clientBurst,
+            @Value("${hotel.admission.max-clients:100000}") long maxClients,
+            MeterRegistry registry) {
+        this.limit = new AimdLimit(initialLimit, minLimit, maxLimit, latencyThreshold.toNanos(), backoffRatio);
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.retryAfter = retryAfter;
+        this.registry = registry;
+        // An idle bucket is full again once it has been refilled for burst / rate,
+        // so dropping it then loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMillis(clientRate > 0
+                        ? Math.max(1000, (long) Math.ceil(clientBurst * 1000 / clientRate)) : 1000))
+                .build();
+
+        Gauge.builder("hotel.admission.limit", limit, AimdLimit::getLimit)
+                .description("Concurrent service calls currently admitted at most")
+                .register(registry);
+        Gauge.builder("hotel.admission.inflight", limit, AimdLimit::getInFlight)
+                .description("Service calls in flight")
+                .register(registry);
+        Gauge.builder("hotel.admission.callers", buckets, Cache::estimatedSize)
+                .description("Callers with a rate limit bucket")
+                .register(registry);
+        log.info("Admission control: limit {} ({}..{}), latency threshold {}, {} requests/s per caller",
+                limit.getLimit(), minLimit, maxLimit, latencyThreshold, clientRate > 0 ? clientRate : "unlimited");
+    }
+
+    /**
+     * Admit a call of the current caller, to be completed by {@link #release}
+     *
+     * @throws OverloadedException if the caller is over its rate or the service at its limit
+     */
+    public void acquire() {
+        checkRate();
+        acquireSlot();
+    }
+
+    /**
+     * Charge the current caller one call of its rate, for a call whose work is
+     * then admitted piece by piece with {@link #acquireSlot}
+     *
+     * @throws OverloadedException if the caller is over its rate
+     */
+    public void checkRate() {
+        String caller = CallerContext.current();
+        if (clientRate > 0 && caller != null) {
+            long now = System.nanoTime();
+            long wait = buckets.get(caller, key -> new TokenBucket(clientRate, clientBurst, now)).tryTake(now);
+            if (wait > 0) {
+                rejected("rate").increment();
+                throw new OverloadedException("Rate limit of " + clientRate + " requests per second exceeded",
+                        true, Duration.ofNanos(wait));
+            }
+        }
+    }
+
+    /**
+     * Take a slot of the concurrency limit, to be given back by {@link #release}
+     *
+     * @throws OverloadedException if the service is at its limit
+     */
+    public void acquireSlot() {
+        if (!limit.tryAcquire()) {
+            rejected("concurrency").increment();
+            throw new OverloadedException("Service is at its limit of " + limit.getLimit()
+                    + " concurrent calls, retry later", false, retryAfter);
+        }
+    }
+
+    /**
+     * Complete an admitted call, adjusting the limit by its latency unless it is not sampled
+     *
+     * @param error the call's failure, null on success; only server errors count as overload
+     */
+    public void release(long latencyNanos, Throwable error, boolean sampled) {
+        if (sampled) {
+            limit.release(latencyNanos, error != null && Outcomes.forException(error) == Outcome.SERVER_ERROR);
+        } else {
+            limit.release();
+        }
+    }
+
+    public AimdLimit getLimit() {
+        return limit;
+    }
+
+    private Counter rejected(String reason) {
+        return Counter.builder(REJECTED)
+                .description("Calls refused by admission control")
+                .tag("protocol", ProtocolContext.current())
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotel.admission;
+
+import com.hotel.metrics.ProtocolContext;
+import com.hotel.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Admits protocol calls to the ReservationService the adapters use, ordered
+ * outermost so refused calls cost no transaction, cache lookup or service
+ * timing. With sharding that is the sharded front, so its per-shard calls are
+ * not admitted a second time. Calls made outside a protocol request, such as
+ * seeding, or within an AdmittedCall are never refused.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "hotel.admission.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AdmissionControlAspect {
+
+    // Their duration grows with the data they cover rather than with load
+    private static final Set<String> UNSAMPLED = Set.of("createReservations", "getAllReservations",
+            "streamReservations");
+
+    private final AdmissionControl admissionControl;
+    private final ObjectProvider<ReservationService> reservationServiceProvider;
+    private volatile ReservationService reservationService;
+
+    @Around("execution(public * com.hotel.service.ReservationService.*(..))")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ProtocolContext.current().equals(ProtocolContext.NONE) || AdmittedCall.isActive()
+                || joinPoint.getThis() != front()) {
+            return joinPoint.proceed();
+        }
+        admissionControl.acquire();
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            admissionControl.release(System.nanoTime() - start, error,
+                    !UNSAMPLED.contains(joinPoint.getSignature().getName()));
+        }
+    }
+
+    /**
+     * The primary ReservationService, looked up on first use as it is being advised by this aspect
+     */
+    private ReservationService front() {
+        ReservationService front = reservationService;
+        if (front == null) {
+            front = reservationServiceProvider.getObject();
+            reservationService = front;
+        }
+        return front;
+    }
+}
@@ -0,0 +1,38 @@
+package com.hotel.admission;
+
+/**
+ * Marks service calls made on behalf of a protocol call that was admitted as
+ * a whole, such as the items of a streamed batch, so they are not admitted
+ * and rate limited one by one
+ */
+public final class AdmittedCall {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private AdmittedCall() {
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Mark the current thread as serving an admitted call until the scope is closed
+     */
+    public static Scope enter() {
+        boolean outermost = ACTIVE.get() == null;
+        ACTIVE.set(Boolean.TRUE);
+        return () -> {
+            if (outermost) {
+                ACTIVE.remove();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
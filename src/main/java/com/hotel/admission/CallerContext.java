@@ -0,0 +1,44 @@
+package com.hotel.admission;
+
+/**
+ * Caller the current thread is serving, the key of its rate limit: the
+ * client ID header or metadata it sent, or else its address
+ */
+public final class CallerContext {
+
+    public static final String HEADER = "X-Client-Id";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private CallerContext() {
+    }
+
+    /**
+     * The current caller, null outside a protocol request
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Mark the current thread as serving the given caller until the scope is closed
+     */
+    public static Scope enter(String caller) {
+        String previous = CURRENT.get();
+        CURRENT.set(caller);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
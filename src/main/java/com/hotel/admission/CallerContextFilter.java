@@ -0,0 +1,29 @@
+package com.hotel.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sets the caller context of REST, SOAP and GraphQL requests from the remote
+ * address, or the X-Client-Id header relayed by a trusted proxy
+ */
+@RequiredArgsConstructor
+public class CallerContextFilter extends OncePerRequestFilter {
+
+    private final CallerResolver callerResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String caller = callerResolver.resolve(request.getRemoteAddr(), request.getHeader(CallerContext.HEADER));
+        try (CallerContext.Scope ignored = CallerContext.enter(caller)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotel.admission;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Sets the caller context of gRPC calls from the remote host, or the
+ * x-client-id metadata relayed by a trusted proxy, around every listener callback
+ */
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class CallerContextInterceptor implements ServerInterceptor {
+
+    private static final Metadata.Key<String> CLIENT_ID =
+            Metadata.Key.of(CallerContext.HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    private final CallerResolver callerResolver;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        String caller = callerResolver.resolve(remoteHost(call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR)),
+                headers.get(CLIENT_ID));
+
+        ServerCall.Listener<ReqT> listener;
+        try (CallerContext.Scope ignored = CallerContext.enter(caller)) {
+            listener = next.startCall(call, headers);
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                try (CallerContext.Scope ignored = CallerContext.enter(caller)) {
+                    super.onMessage(message);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                try (CallerContext.Scope ignored = CallerContext.enter(caller)) {
+                    super.onHalfClose();
+                }
+            }
+
+            @Override
+            public void onReady() {
+                try (CallerContext.Scope ignored = CallerContext.enter(caller)) {
+                    super.onReady();
+                }
+            }
+        };
+    }
+
+    private static String remoteHost(SocketAddress address) {
+        if (address instanceof InetSocketAddress inet) {
+            return inet.getAddress() != null ? inet.getAddress().getHostAddress() : inet.getHostString();
+        }
+        return String.valueOf(address);
+    }
+}
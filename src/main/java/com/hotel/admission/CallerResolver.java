@@ -0,0 +1,40 @@
+package com.hotel.admission;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Decides who a request is from, for its rate limit. Callers are their
+ * remote address; a client ID is only believed when a trusted proxy relays
+ * it, since anyone else could send a new one with every request and escape
+ * its limit. Client IDs are capped so they cannot flood the bucket cache.
+ */
+public class CallerResolver {
+
+    public static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private static final Pattern CLIENT_ID = Pattern.compile("[A-Za-z0-9._:@-]{1," + MAX_CLIENT_ID_LENGTH + "}");
+
+    private final Set<String> trustedProxies;
+
+    /**
+     * @param trustedProxies addresses whose client ID header or metadata is believed
+     */
+    public CallerResolver(Set<String> trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    /**
+     * @param remoteAddress the address the request came from
+     * @param clientId      the client ID it carries, null without one
+     */
+    public String resolve(String remoteAddress, String clientId) {
+        if (trustedProxies.contains(remoteAddress) && StringUtils.hasText(clientId)
+                && CLIENT_ID.matcher(clientId).matches()) {
+            return "client:" + clientId;
+        }
+        return remoteAddress;
+    }
+}
@@ -0,0 +1,167 @@
+package com.hotel.bulkhead;
+
+import com.hotel.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compartment of one protocol: its own pool of threads, at most threads +
+ * queue calls admitted, the rest refused at once, and a quota of database
+ * connections. Published as hotel.bulkhead.active, hotel.bulkhead.queue,
+ * hotel.bulkhead.connections, hotel.bulkhead.wait and hotel.bulkhead.rejected,
+ * tagged with the protocol.
+ */
+@Slf4j
+public final class Bulkhead implements AutoCloseable {
+
+    private final String protocol;
+    private final ThreadPoolExecutor executor;
+    private final Executor timedExecutor;
+    private final Semaphore calls;
+    private final int connectionQuota;
+    private final Semaphore connections;
+    private final long connectionTimeoutNanos;
+    private final Duration retryAfter;
+    private final Timer wait;
+    private final Counter rejected;
+
+    public Bulkhead(String protocol, int threads, int queue, int connectionQuota, Duration connectionTimeout,
+            Duration retryAfter, ThreadFactory threadFactory, MeterRegistry registry) {
+        this.protocol = protocol;
+        // Unbounded here, the queue is bounded by the calls admitted
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        this.calls = new Semaphore(threads + queue);
+        this.connectionQuota = connectionQuota;
+        this.connections = new Semaphore(connectionQuota);
+        this.connectionTimeoutNanos = connectionTimeout.toNanos();
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("hotel.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Bulkhead threads busy")
+                .tag("protocol", protocol)
+                .register(registry);
+        Gauge.builder("hotel.bulkhead.queue", executor, pool -> pool.getQueue().size())
+                .description("Tasks waiting for a bulkhead thread")
+                .tag("protocol", protocol)
+                .register(registry);
+        Gauge.builder("hotel.bulkhead.connections", connections, permits -> connectionQuota - permits.availablePermits())
+                .description("Database connections held out of the bulkhead's quota")
+                .tag("protocol", protocol)
+                .register(registry);
+        this.wait = Timer.builder("hotel.bulkhead.wait")
+                .description("Time tasks waited for a bulkhead thread")
+                .tag("protocol", protocol)
+                .register(registry);
+        this.rejected = Counter.builder("hotel.bulkhead.rejected")
+                .description("Calls refused by a full bulkhead")
+                .tag("protocol", protocol)
+                .register(registry);
+        this.timedExecutor = command -> {
+            long queuedAt = System.nanoTime();
+            executor.execute(() -> {
+                wait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                command.run();
+            });
+        };
+        log.info("Bulkhead {}: {} threads, {} queued calls, {} database connections",
+                protocol, threads, queue, connectionQuota);
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Admit a call, to be completed by {@link #exit}
+     *
+     * @throws OverloadedException if threads + queue calls are already admitted
+     */
+    public void enter() {
+        if (!calls.tryAcquire()) {
+            rejected.increment();
+            throw new OverloadedException("The " + protocol + " bulkhead is full, retry later", false, retryAfter);
+        }
+    }
+
+    public void exit() {
+        calls.release();
+    }
+
+    /**
+     * Run work on a bulkhead thread and wait for it, as one admitted call
+     *
+     * @throws OverloadedException if the bulkhead is full
+     * @throws Exception           whatever the work threw
+     */
+    public <T> T call(Callable<T> work) throws Exception {
+        enter();
+        try {
+            FutureTask<T> task = new FutureTask<>(work);
+            executor().execute(task);
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                task.cancel(true);
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw (Error) e.getCause();
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * The bulkhead threads, timing how long each task waits for one
+     */
+    public Executor executor() {
+        return timedExecutor;
+    }
+
+    /**
+     * Take a database connection out of the quota, to be given back by {@link #releaseConnection}
+     *
+     * @throws SQLTransientConnectionException if none is given back within the connection timeout
+     */
+    public void acquireConnection() throws SQLTransientConnectionException {
+        try {
+            if (connections.tryAcquire(connectionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new SQLTransientConnectionException("The " + protocol + " quota of " + connectionQuota
+                + " database connections stayed exhausted for "
+                + TimeUnit.NANOSECONDS.toMillis(connectionTimeoutNanos) + " ms");
+    }
+
+    public void releaseConnection() {
+        connections.release();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,95 @@
+package com.hotel.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.exception.GlobalExceptionHandler;
+import com.hotel.exception.OverloadedException;
+import com.hotel.graphql.AdmissionErrorType;
+import com.hotel.metrics.ProtocolContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the requests of one HTTP protocol on its bulkhead's threads, the
+ * container thread waiting for each. Reading, unmarshalling, the service call
+ * and marshalling all happen there, so a burst of one protocol queues behind
+ * its own threads only. A request the bulkhead has no room for is answered at
+ * once with Retry-After, in the protocol's error format. WebSocket upgrades
+ * pass through: subscriptions hold no bulkhead thread.
+ */
+@RequiredArgsConstructor
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkhead bulkhead;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("websocket".equalsIgnoreCase(request.getHeader(HttpHeaders.UPGRADE))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            bulkhead.call(() -> {
+                chain.doFilter(request, response);
+                return null;
+            });
+        } catch (OverloadedException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            reject(response, e);
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+
+    private void reject(HttpServletResponse response, OverloadedException e) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        switch (bulkhead.getProtocol()) {
+            case ProtocolContext.SOAP -> {
+                // Faults are sent with 500 like every other SOAP fault
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                response.setContentType(MediaType.TEXT_XML_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.getWriter().write("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                        + "<soap:Body><soap:Fault><faultcode>soap:Server.Overloaded</faultcode>"
+                        + "<faultstring>" + HtmlUtils.htmlEscape(e.getMessage()) + "</faultstring>"
+                        + "</soap:Fault></soap:Body></soap:Envelope>");
+            }
+            case ProtocolContext.GRAPHQL -> {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), Map.of("errors", List.of(Map.of(
+                        "message", e.getMessage(),
+                        "extensions", Map.of("classification", AdmissionErrorType.OVERLOADED.name(),
+                                "retryAfter", e.getRetryAfterSeconds())))));
+            }
+            default -> {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                        e.getMessage()));
+            }
+        }
+    }
+}
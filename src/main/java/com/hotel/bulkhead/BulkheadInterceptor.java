@@ -0,0 +1,91 @@
+package com.hotel.bulkhead;
+
+import com.hotel.exception.OverloadedException;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits gRPC calls into the gRPC bulkhead, whose threads are the server's
+ * call executor, from call start to close or cancel. A call the bulkhead has
+ * no room for is closed at once with RESOURCE_EXHAUSTED and a retry pushback.
+ * Subscriptions are not admitted: they hold no thread between events.
+ */
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements ServerInterceptor {
+
+    private static final Metadata.Key<String> RETRY_PUSHBACK =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final Bulkhead bulkhead;
+    private final Set<String> subscriptions;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        if (subscriptions.contains(call.getMethodDescriptor().getFullMethodName())) {
+            return next.startCall(call, headers);
+        }
+        try {
+            bulkhead.enter();
+        } catch (OverloadedException e) {
+            Metadata trailers = new Metadata();
+            trailers.put(RETRY_PUSHBACK, String.valueOf(e.getRetryAfter().toMillis()));
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(e.getMessage()), trailers);
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        AtomicBoolean exited = new AtomicBoolean();
+        Runnable exit = () -> {
+            if (exited.compareAndSet(false, true)) {
+                bulkhead.exit();
+            }
+        };
+        ServerCall<ReqT, RespT> admittedCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    exit.run();
+                }
+            }
+        };
+
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(admittedCall, headers);
+        } catch (RuntimeException e) {
+            exit.run();
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onCancel() {
+                try {
+                    super.onCancel();
+                } finally {
+                    exit.run();
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    super.onComplete();
+                } finally {
+                    exit.run();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.hotel.bulkhead;
+
+import com.hotel.metrics.ProtocolContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Holds each protocol to its bulkhead's quota of the connection pool: a
+ * connection taken while serving a protocol counts against that protocol's
+ * quota until it is closed. Work outside a protocol request, startup and
+ * background jobs, is not limited.
+ */
+public class ConnectionQuotaDataSource extends DelegatingDataSource {
+
+    private final Supplier<Map<String, Bulkhead>> bulkheads;
+
+    /**
+     * @param bulkheads the bulkheads by protocol, looked up on the first connection
+     */
+    public ConnectionQuotaDataSource(DataSource target, Supplier<Map<String, Bulkhead>> bulkheads) {
+        super(target);
+        this.bulkheads = SingletonSupplier.of(bulkheads);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead bulkhead = bulkheads.get().get(ProtocolContext.current());
+        if (bulkhead == null) {
+            return super.getConnection();
+        }
+        bulkhead.acquireConnection();
+        try {
+            return withQuota(super.getConnection(), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkhead bulkhead = bulkheads.get().get(ProtocolContext.current());
+        if (bulkhead == null) {
+            return super.getConnection(username, password);
+        }
+        bulkhead.acquireConnection();
+        try {
+            return withQuota(super.getConnection(username, password), bulkhead);
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.releaseConnection();
+            throw e;
+        }
+    }
+
+    private static Connection withQuota(Connection connection, Bulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                try {
+                    connection.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        bulkhead.releaseConnection();
+                    }
+                }
+                return null;
+            }
+            if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(connection)) {
+                return connection;
+            }
+            return invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(ConnectionQuotaDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hotel.config;
+
+import com.hotel.admission.CallerContextFilter;
+import com.hotel.admission.CallerResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Caller context for the per-caller rate limits of admission control on the
+ * HTTP protocols; gRPC calls get theirs from CallerContextInterceptor
+ */
+@Configuration
+public class AdmissionConfig {
+
+    @Bean
+    public CallerResolver callerResolver(@Value("${hotel.admission.trusted-proxies:}") Set<String> trustedProxies) {
+        return new CallerResolver(trustedProxies);
+    }
+
+    @Bean
+    public FilterRegistrationBean<CallerContextFilter> callerContextFilter(CallerResolver callerResolver) {
+        FilterRegistrationBean<CallerContextFilter> registration =
+                new FilterRegistrationBean<>(new CallerContextFilter(callerResolver));
+        registration.addUrlPatterns("/api/*", "/services/*", "/graphql");
+        return registration;
+    }
+}
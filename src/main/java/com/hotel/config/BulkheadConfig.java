@@ -0,0 +1,163 @@
+package com.hotel.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.bulkhead.Bulkhead;
+import com.hotel.bulkhead.BulkheadFilter;
+import com.hotel.bulkhead.BulkheadInterceptor;
+import com.hotel.bulkhead.ConnectionQuotaDataSource;
+import com.hotel.grpc.generated.ReservationGrpcServiceGrpc;
+import com.hotel.metrics.ProtocolContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Protocol bulkheads, on unless hotel.bulkhead.enabled=false. REST, SOAP and
+ * GraphQL requests run on their own bounded pools instead of sharing Tomcat's
+ * threads, gRPC calls on the gRPC server's executor, and each protocol may
+ * hold at most its quota of every connection pool, so a burst of one protocol
+ * queues and is shed within its own compartment.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hotel.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    private final Duration connectionTimeout;
+    private final Duration retryAfter;
+    private final int pools;
+    private final boolean virtualThreads;
+    private final MeterRegistry registry;
+
+    public BulkheadConfig(
+            @Value("${hotel.bulkhead.connection-timeout:5s}") Duration connectionTimeout,
+            @Value("${hotel.bulkhead.retry-after:1s}") Duration retryAfter,
+            @Value("${hotel.sharding.shards:1}") int shards,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            MeterRegistry registry) {
+        this.connectionTimeout = connectionTimeout;
+        this.retryAfter = retryAfter;
+        // Every shard has its own pool, and a scatter-gather call takes a connection from each
+        this.pools = Math.max(1, shards);
+        this.virtualThreads = virtualThreads;
+        this.registry = registry;
+    }
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead restBulkhead(
+            @Value("${hotel.bulkhead.rest.threads:32}") int threads,
+            @Value("${hotel.bulkhead.rest.queue:64}") int queue,
+            @Value("${hotel.bulkhead.rest.connections:5}") int connections) {
+        return bulkhead(ProtocolContext.REST, threads, queue, connections);
+    }
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead soapBulkhead(
+            @Value("${hotel.bulkhead.soap.threads:8}") int threads,
+            @Value("${hotel.bulkhead.soap.queue:32}") int queue,
+            @Value("${hotel.bulkhead.soap.connections:5}") int connections) {
+        return bulkhead(ProtocolContext.SOAP, threads, queue, connections);
+    }
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead graphqlBulkhead(
+            @Value("${hotel.bulkhead.graphql.threads:16}") int threads,
+            @Value("${hotel.bulkhead.graphql.queue:32}") int queue,
+            @Value("${hotel.bulkhead.graphql.connections:5}") int connections) {
+        return bulkhead(ProtocolContext.GRAPHQL, threads, queue, connections);
+    }
+
+    @Bean(destroyMethod = "close")
+    public Bulkhead grpcBulkhead(
+            @Value("${hotel.bulkhead.grpc.threads:16}") int threads,
+            @Value("${hotel.bulkhead.grpc.queue:64}") int queue,
+            @Value("${hotel.bulkhead.grpc.connections:5}") int connections) {
+        return bulkhead(ProtocolContext.GRPC, threads, queue, connections);
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> restBulkheadFilter(
+            @Qualifier("restBulkhead") Bulkhead bulkhead, ObjectMapper objectMapper) {
+        return bulkheadFilter(bulkhead, objectMapper, "/api/*");
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> soapBulkheadFilter(
+            @Qualifier("soapBulkhead") Bulkhead bulkhead, ObjectMapper objectMapper) {
+        return bulkheadFilter(bulkhead, objectMapper, "/services/*");
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> graphqlBulkheadFilter(
+            @Qualifier("graphqlBulkhead") Bulkhead bulkhead, ObjectMapper objectMapper) {
+        return bulkheadFilter(bulkhead, objectMapper, "/graphql");
+    }
+
+    @Bean
+    public GrpcServerConfigurer grpcBulkheadExecutor(@Qualifier("grpcBulkhead") Bulkhead bulkhead) {
+        return serverBuilder -> serverBuilder.executor(bulkhead.executor());
+    }
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public BulkheadInterceptor grpcBulkheadInterceptor(@Qualifier("grpcBulkhead") Bulkhead bulkhead) {
+        return new BulkheadInterceptor(bulkhead,
+                Set.of(ReservationGrpcServiceGrpc.getWatchReservationsMethod().getFullMethodName()));
+    }
+
+    /**
+     * Puts the data source behind the connection quotas; static, as it must
+     * exist before the data source is created
+     */
+    @Bean
+    public static BeanPostProcessor connectionQuotaDataSourcePostProcessor(ObjectProvider<Bulkhead> bulkheads) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConnectionQuotaDataSource)) {
+                    return new ConnectionQuotaDataSource(dataSource, () -> bulkheads.stream()
+                            .collect(Collectors.toMap(Bulkhead::getProtocol, Function.identity())));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private Bulkhead bulkhead(String protocol, int threads, int queue, int connections) {
+        ThreadFactory threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor(protocol + "-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory(protocol + "-");
+        return new Bulkhead(protocol, threads, queue, connections * pools, connectionTimeout, retryAfter,
+                threadFactory, registry);
+    }
+
+    private static FilterRegistrationBean<BulkheadFilter> bulkheadFilter(Bulkhead bulkhead, ObjectMapper objectMapper,
+            String urlPattern) {
+        FilterRegistrationBean<BulkheadFilter> registration =
+                new FilterRegistrationBean<>(new BulkheadFilter(bulkhead, objectMapper));
+        registration.addUrlPatterns(urlPattern);
+        // First, so the protocol, caller and metrics filters run on the bulkhead thread
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotel.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.datasource.PrimaryReads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache configuration.
+ * Caches are bounded in size and age and record statistics, which Actuator
+ * publishes as cache.gets / cache.evictions metrics. Caching advice runs
+ * outside transactions: hits do not open one, and evictions on service
+ * methods happen after commit. It runs inside the service metrics aspect
+ * (HIGHEST_PRECEDENCE + 1 in ServiceMetricsAspect), so hits are timed; the
+ * orders must stay distinct, as Spring leaves ties unordered. Loads of
+ * synchronized caches read from the primary when replicas are in use (see
+ * PrimaryReads), so a lagging replica cannot fill an entry that outlives its
+ * lag.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE + 2)
+public class CacheConfig {
+
+    public static final String CLIENTS = "clients";
+    public static final String CHAMBRES = "chambres";
+    public static final String RESERVATIONS = "reservations";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${hotel.cache.reference.max-size:10000}") long referenceMaxSize,
+            @Value("${hotel.cache.reference.ttl:10m}") Duration referenceTtl,
+            @Value("${hotel.cache.reservations.max-size:10000}") long reservationsMaxSize,
+            @Value("${hotel.cache.reservations.ttl:60s}") Duration reservationsTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new PrimaryLoadingCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(CLIENTS, Caffeine.newBuilder()
+                .maximumSize(referenceMaxSize)
+                .expireAfterWrite(referenceTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CHAMBRES, Caffeine.newBuilder()
+                .maximumSize(referenceMaxSize)
+                .expireAfterWrite(referenceTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(RESERVATIONS, Caffeine.newBuilder()
+                .maximumSize(reservationsMaxSize)
+                .expireAfterWrite(reservationsTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    /**
+     * A Caffeine cache whose loads (@Cacheable with sync = true) run in a
+     * PrimaryReads scope
+     */
+    static class PrimaryLoadingCache extends CaffeineCache {
+
+        PrimaryLoadingCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return super.get(key, () -> PrimaryReads.call(valueLoader));
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.hotel.config;
 
+import com.hotel.metrics.RequestMetrics;
+import com.hotel.metrics.SoapMetricsInterceptor;
+import com.hotel.soap.OverloadedFaultInterceptor;
 import com.hotel.soap.ReservationSoapServiceImpl;
 import jakarta.xml.ws.Endpoint;
 import lombok.RequiredArgsConstructor;
@@ -17,10 +20,20 @@ public class CxfConfig {
 
     private final Bus bus;
     private final ReservationSoapServiceImpl reservationSoapService;
+    private final RequestMetrics requestMetrics;
 
+    /**
+     * No endpoint executor is set: CXF invokes the service on the servlet thread,
+     * which keeps the protocol context and is a SOAP bulkhead thread when bulkheads
+     * are on, or a virtual thread in virtual-thread mode
+     */
     @Bean
     public Endpoint reservationEndpoint() {
         EndpointImpl endpoint = new EndpointImpl(bus, reservationSoapService);
+        endpoint.getInInterceptors().add(SoapMetricsInterceptor.start(requestMetrics));
+        endpoint.getOutInterceptors().add(SoapMetricsInterceptor.stop(requestMetrics));
+        endpoint.getOutFaultInterceptors().add(SoapMetricsInterceptor.stop(requestMetrics));
+        endpoint.getOutFaultInterceptors().add(new OverloadedFaultInterceptor());
         endpoint.publish("/reservation");
         return endpoint;
     }
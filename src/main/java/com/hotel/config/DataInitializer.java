@@ -4,24 +4,32 @@ import com.hotel.entity.*;
 import com.hotel.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 
 /**
- * Data initializer to populate sample data on application startup
+ * Data initializer to populate sample data on application startup.
+ * Runs before journal recovery, which restores reservations referencing this data.
+ * Replaced by SyntheticDataSeeder when hotel.seed.mode=synthetic.
  */
 @Component
+@ConditionalOnProperty(name = "hotel.seed.mode", havingValue = "sample", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
-public class DataInitializer implements CommandLineRunner {
+public class DataInitializer extends StartupTask {
 
     private final ClientRepository clientRepository;
     private final ChambreRepository chambreRepository;
 
     @Override
-    public void run(String... args) {
+    public int getPhase() {
+        return SEED_PHASE;
+    }
+
+    @Override
+    protected void run() {
         log.info("Initializing sample data...");
 
         // Create sample clients
@@ -0,0 +1,73 @@
+package com.hotel.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.graphql.PersistedDocumentProvider;
+import com.hotel.graphql.PersistedQueryHttpHandler;
+import com.hotel.graphql.ReservationComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.webmvc.GraphQlHttpHandler;
+
+/**
+ * GraphQL document caching and execution limits. Parsed and validated
+ * documents are cached, with Apollo Automatic Persisted Queries on the same
+ * cache, published as cache.gets{cache=graphql.documents}. Queries nested
+ * deeper than hotel.graphql.max-depth or costing more than
+ * hotel.graphql.max-complexity are rejected before anything is fetched.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    public static final String DOCUMENTS = "graphql.documents";
+
+    @Bean
+    public PersistedDocumentProvider persistedDocumentProvider(
+            @Value("${hotel.graphql.document-cache-size:1000}") long documentCacheSize,
+            MeterRegistry registry) {
+        Cache<Object, PreparsedDocumentEntry> documents = Caffeine.newBuilder()
+                .maximumSize(documentCacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, documents, DOCUMENTS);
+        return new PersistedDocumentProvider(documents);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedDocumentCustomizer(PersistedDocumentProvider provider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(provider));
+    }
+
+    /**
+     * Accepts persisted queries sent as a hash only
+     */
+    @Bean
+    public GraphQlHttpHandler graphQlHttpHandler(WebGraphQlHandler webGraphQlHandler, ObjectMapper objectMapper) {
+        return new PersistedQueryHttpHandler(webGraphQlHandler, objectMapper);
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${hotel.graphql.max-depth:15}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${hotel.graphql.max-complexity:10000}") int maxComplexity,
+            @Value("${hotel.graphql.unbounded-list-size:1000}") int unboundedListSize,
+            @Value("${hotel.pagination.default-limit:50}") int defaultPageSize,
+            @Value("${hotel.pagination.max-limit:500}") int maxPageSize) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity,
+                new ReservationComplexityCalculator(defaultPageSize, maxPageSize, unboundedListSize, maxComplexity));
+    }
+}
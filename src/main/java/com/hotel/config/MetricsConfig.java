@@ -0,0 +1,59 @@
+package com.hotel.config;
+
+import com.hotel.metrics.ProtocolContext;
+import com.hotel.metrics.ProtocolContextFilter;
+import com.hotel.metrics.RequestMetrics;
+import com.hotel.metrics.RestMetricsFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Servlet filters for protocol metrics. REST requests are timed by a filter;
+ * SOAP and GraphQL requests are timed by CXF and GraphQL instrumentation, so
+ * their filters only set the protocol context.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<RestMetricsFilter> restMetricsFilter(RequestMetrics metrics) {
+        FilterRegistrationBean<RestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RestMetricsFilter(metrics));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ProtocolContextFilter> soapProtocolContextFilter() {
+        FilterRegistrationBean<ProtocolContextFilter> registration =
+                new FilterRegistrationBean<>(new ProtocolContextFilter(ProtocolContext.SOAP));
+        registration.addUrlPatterns("/services/*");
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ProtocolContextFilter> graphqlProtocolContextFilter() {
+        FilterRegistrationBean<ProtocolContextFilter> registration =
+                new FilterRegistrationBean<>(new ProtocolContextFilter(ProtocolContext.GRAPHQL));
+        registration.addUrlPatterns("/graphql");
+        return registration;
+    }
+
+    /**
+     * Carries the protocol context onto the application task executor, which
+     * runs streaming REST responses
+     */
+    @Bean
+    public TaskDecorator protocolContextTaskDecorator() {
+        return task -> {
+            String protocol = ProtocolContext.current();
+            return () -> {
+                try (ProtocolContext.Scope ignored = ProtocolContext.enter(protocol)) {
+                    task.run();
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotel.config;
+
+import com.hotel.entity.Chambre;
+import com.hotel.entity.Client;
+import com.hotel.service.RoomCatalog;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener evicting cached clients and rooms when they change
+ * (e.g. a room's disponible or prix), along with the cached reservations
+ * embedding them and the room search catalog. Eviction runs after commit so
+ * a concurrent reader cannot re-cache the old row in between.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    // Resolved lazily: the catalog depends on repositories created after this listener
+    private final ObjectProvider<RoomCatalog> roomCatalog;
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        if (entity instanceof Chambre) {
+            afterCompletion(() -> roomCatalog.ifAvailable(RoomCatalog::invalidate));
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Client client) {
+            evictAfterCommit(CacheConfig.CLIENTS, client.getId());
+        } else if (entity instanceof Chambre chambre) {
+            evictAfterCommit(CacheConfig.CHAMBRES, chambre.getId());
+            afterCompletion(() -> roomCatalog.ifAvailable(RoomCatalog::invalidate));
+        }
+    }
+
+    private void evictAfterCommit(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache reservations = cacheManager.getCache(CacheConfig.RESERVATIONS);
+        Runnable eviction = () -> {
+            log.debug("Evicting {} {} and cached reservations", cacheName, id);
+            if (cache != null) {
+                cache.evict(id);
+            }
+            if (reservations != null) {
+                reservations.clear();
+            }
+        };
+        afterCompletion(eviction);
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.hotel.config;
+
+import com.hotel.datasource.ReadYourWritesFilter;
+import com.hotel.datasource.Replica;
+import com.hotel.datasource.ReplicaLagMonitor;
+import com.hotel.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, active when hotel.datasource.replica-urls is set.
+ * spring.datasource.* describes the primary; replicas share its driver and
+ * credentials. Read-only transactions go to the replicas, everything else
+ * (including reads outside a transaction) to the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${hotel.datasource.replica-urls:}'.isBlank() and ${hotel.sharding.shards:1} <= 1")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+            @Value("${hotel.datasource.replica-urls}") String replicaUrls,
+            @Value("${hotel.datasource.max-replica-lag:1s}") Duration maxReplicaLag,
+            MeterRegistry registry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(replicaUrls)) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            replicas.add(new Replica(name, replica));
+        }
+        // Reads stay on the primary after a write for as long as replicas may lag
+        return new ReplicaRoutingDataSource(primary, replicas, maxReplicaLag, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+            @Value("${hotel.datasource.lag-query:}") String lagQuery,
+            @Value("${hotel.datasource.max-replica-lag:1s}") Duration maxReplicaLag,
+            @Value("${hotel.datasource.lag-check-interval:5s}") Duration lagCheckInterval,
+            MeterRegistry registry) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource.getReplicas(), lagQuery, maxReplicaLag,
+                lagCheckInterval, registry);
+    }
+
+    /**
+     * Release connections after each transaction instead of holding them for
+     * the session, which open-in-view stretches to the whole request: the
+     * next transaction must be routed afresh
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        // After the bulkhead filter, on the thread that serves the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
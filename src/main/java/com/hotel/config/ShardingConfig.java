@@ -0,0 +1,143 @@
+package com.hotel.config;
+
+import com.hotel.service.ReservationService;
+import com.hotel.service.RoomAvailabilityIndex;
+import com.hotel.sharding.ShardInitializer;
+import com.hotel.sharding.ShardMigrator;
+import com.hotel.sharding.ShardRouter;
+import com.hotel.sharding.ShardRoutingDataSource;
+import com.hotel.sharding.ShardedReservationService;
+import com.hotel.sharding.ShardsEndpoint;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Sharding of reservations by room, active when hotel.sharding.shards is
+ * greater than 1. spring.datasource.* describes shard 0; the other shards use
+ * hotel.sharding.url-template with its driver and credentials. Every shard
+ * holds a copy of the clients and rooms, so reservations still join them
+ * locally; reference data is written to shard 0 and copied to the others.
+ */
+@Configuration
+@ConditionalOnExpression("${hotel.sharding.shards:1} > 1")
+public class ShardingConfig {
+
+    public ShardingConfig(@Value("${hotel.datasource.replica-urls:}") String replicaUrls,
+            @Value("${hotel.journal.enabled:false}") boolean journalEnabled) {
+        if (StringUtils.hasText(replicaUrls)) {
+            throw new IllegalStateException("Read replicas cannot be combined with sharding");
+        }
+        if (journalEnabled) {
+            throw new IllegalStateException("The reservation journal cannot be combined with sharding");
+        }
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+            @Value("${hotel.sharding.shards}") int shards,
+            @Value("${hotel.sharding.url-template}") String urlTemplate,
+            MeterRegistry registry) {
+        List<DataSource> dataSources = new ArrayList<>();
+        HikariDataSource first = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        first.setPoolName("shard-0");
+        dataSources.add(first);
+        for (int shard = 1; shard < shards; shard++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urlTemplate.replace("{shard}", String.valueOf(shard)))
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            dataSources.add(dataSource);
+        }
+        return new ShardRoutingDataSource(dataSources, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardRoutingDataSource shardRoutingDataSource,
+            @Value("${hotel.sharding.gather-threads:32}") int gatherThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${hotel.booking.lock-timeout-ms:5000}") long lockTimeoutMillis) {
+        Executor executor;
+        if (virtualThreads) {
+            executor = new VirtualThreadTaskExecutor("shard-");
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shard-");
+            threadFactory.setDaemon(true);
+            executor = Executors.newFixedThreadPool(gatherThreads, threadFactory);
+        }
+        return new ShardRouter(shardRoutingDataSource.getShardCount(), executor, lockTimeoutMillis);
+    }
+
+    @Bean
+    public ShardMigrator shardMigrator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ShardRouter shardRouter) {
+        return new ShardMigrator(jdbcTemplate, transactionManager, shardRouter);
+    }
+
+    @Bean
+    public ShardInitializer shardInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter, ShardMigrator shardMigrator,
+            @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardInitializer(entityManagerFactory, jdbcTemplate, shardRouter, shardMigrator, ddlAuto);
+    }
+
+    @Bean
+    @Primary
+    public ReservationService shardedReservationService(
+            @Qualifier("reservationServiceImpl") ReservationService reservationService,
+            ShardRouter shardRouter, ShardMigrator shardMigrator, RoomAvailabilityIndex availabilityIndex,
+            @Value("${hotel.pagination.default-limit:50}") int defaultPageSize,
+            @Value("${hotel.pagination.max-limit:500}") int maxPageSize,
+            @Value("${hotel.batch.max-size:10000}") int maxBatchSize) {
+        return new ShardedReservationService(reservationService, shardRouter, shardMigrator, availabilityIndex,
+                defaultPageSize, maxPageSize, maxBatchSize);
+    }
+
+    @Bean
+    public ShardsEndpoint shardsEndpoint(ShardRouter shardRouter, ShardMigrator shardMigrator,
+            JdbcTemplate jdbcTemplate) {
+        return new ShardsEndpoint(shardRouter, shardMigrator, jdbcTemplate);
+    }
+
+    /**
+     * Release connections after each transaction instead of holding them for
+     * the session, which open-in-view stretches to the whole request: the
+     * next transaction may be for another shard
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put("hibernate.connection.handling_mode",
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+}
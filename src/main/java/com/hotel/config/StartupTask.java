@@ -0,0 +1,47 @@
+package com.hotel.config;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * One-off work done while the context starts, in an early lifecycle phase, so
+ * it is complete before Tomcat and the gRPC server, started in the last
+ * phases, accept any request
+ */
+public abstract class StartupTask implements SmartLifecycle {
+
+    /** Sample or synthetic data */
+    public static final int SEED_PHASE = 0;
+    /** Journal recovery, which references the seeded clients and rooms */
+    public static final int RECOVERY_PHASE = SEED_PHASE + 1;
+
+    private volatile boolean done;
+
+    protected abstract void run() throws Exception;
+
+    @Override
+    public void start() {
+        if (done) {
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException(getClass().getSimpleName() + " failed", e);
+        }
+        done = true;
+    }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public boolean isRunning() {
+        return done;
+    }
+}
@@ -0,0 +1,271 @@
+package com.hotel.config;
+
+import com.hotel.entity.TypeChambre;
+import com.hotel.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds a large synthetic dataset in place of DataInitializer's sample data,
+ * so load tests and query plans run at production-like cardinalities.
+ * <p>
+ * Rows are generated in fixed-size chunks, each from its own seeded random
+ * source, and inserted with JDBC batches on several threads. Each room's
+ * stays are generated by one chunk, walking forward in time with random gaps,
+ * so no two reservations of a room overlap. The data is the same for a given
+ * seed whatever the thread count. With sharding, clients and rooms are written
+ * to every shard and each reservation to the shard of its room.
+ */
+@Component
+@ConditionalOnProperty(name = "hotel.seed.mode", havingValue = "synthetic")
+@Slf4j
+public class SyntheticDataSeeder extends StartupTask {
+
+    // Matches the allocationSize of Reservation's pooled sequence generator
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    private static final String[] NOMS = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "Roux"};
+    private static final String[] PRENOMS = {"Jean", "Marie", "Pierre", "Sophie", "Lucas", "Camille",
+            "Louis", "Emma", "Hugo", "Chloe", "Paul", "Lea", "Jules", "Manon", "Arthur", "Ines"};
+    private static final String[] PREFERENCES = {"Vue mer", "Non-smoking", "High floor", "Quiet room",
+            "Late check-in", "Extra bed", "Near elevator"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final int clients;
+    private final int rooms;
+    private final long reservations;
+    private final LocalDate firstDate;
+    private final int batchSize;
+    private final int threads;
+    private final long seed;
+
+    public SyntheticDataSeeder(JdbcTemplate jdbcTemplate, ObjectProvider<ShardRouter> shardRouter,
+            @Value("${hotel.seed.clients:1000000}") int clients,
+            @Value("${hotel.seed.rooms:50000}") int rooms,
+            @Value("${hotel.seed.reservations:10000000}") long reservations,
+            @Value("${hotel.seed.first-date:2024-01-01}") LocalDate firstDate,
+            @Value("${hotel.seed.batch-size:5000}") int batchSize,
+            @Value("${hotel.seed.threads:0}") int threads,
+            @Value("${hotel.seed.random-seed:42}") long seed) {
+        if (clients < 1 || rooms < 1 || reservations < 0) {
+            throw new IllegalArgumentException("Synthetic seeding needs at least one client and one room");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.clients = clients;
+        this.rooms = rooms;
+        this.reservations = reservations;
+        this.firstDate = firstDate;
+        this.batchSize = batchSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.seed = seed;
+    }
+
+    @Override
+    public int getPhase() {
+        return SEED_PHASE;
+    }
+
+    @Override
+    protected void run() throws Exception {
+        log.info("Seeding {} clients, {} rooms and {} reservations on {} threads",
+                clients, rooms, reservations, threads);
+        long start = System.nanoTime();
+
+        // Generated rows are consistent, so skip the per-row foreign key checks
+        onEveryShard(() -> jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE"));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("seed-"));
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (long first = 1; first <= clients; first += batchSize) {
+                long from = first;
+                tasks.add(executor.submit(() -> insertClients(from, Math.min(clients, from + batchSize - 1))));
+            }
+            for (long first = 1; first <= rooms; first += batchSize) {
+                long from = first;
+                tasks.add(executor.submit(() -> insertRooms(from, Math.min(rooms, from + batchSize - 1))));
+            }
+            // Whole rooms per chunk, so a room's stays are generated in sequence
+            int roomsPerChunk = (int) Math.max(1, batchSize / Math.max(1, reservations / rooms));
+            for (int first = 1; first <= rooms; first += roomsPerChunk) {
+                int from = first;
+                tasks.add(executor.submit(() -> insertReservations(from, Math.min(rooms, from + roomsPerChunk - 1))));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Synthetic seeding failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            onEveryShard(() -> jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE"));
+        }
+        long loadedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Clients and rooms are inserted on shard 0 only, which is also where these IDs are drawn
+        jdbcTemplate.execute("ALTER TABLE clients ALTER COLUMN id RESTART WITH " + (clients + 1));
+        jdbcTemplate.execute("ALTER TABLE chambres ALTER COLUMN id RESTART WITH " + (rooms + 1));
+        // Hibernate hands out IDs below each fetched sequence value, so skip one block
+        jdbcTemplate.execute("ALTER SEQUENCE reservations_seq RESTART WITH "
+                + (reservations + SEQUENCE_ALLOCATION_SIZE + 1));
+        // Refresh selectivity statistics, so query plans match the new cardinalities
+        onEveryShard(() -> jdbcTemplate.execute("ANALYZE"));
+
+        long rows = clients + rooms + reservations;
+        log.info("Seeded {} rows in {} ms ({} rows/s), statistics refreshed in {} ms", rows, loadedMillis,
+                rows * 1000 / Math.max(1, loadedMillis),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) - loadedMillis);
+    }
+
+    private void insertClients(long from, long to) {
+        SplittableRandom random = chunkRandom(0, from);
+        List<ClientRow> rows = new ArrayList<>((int) (to - from + 1));
+        for (long id = from; id <= to; id++) {
+            rows.add(new ClientRow(id, pick(NOMS, random), pick(PRENOMS, random)));
+        }
+        onEveryShard(() -> jdbcTemplate.batchUpdate(
+                "INSERT INTO clients (id, nom, prenom, email, telephone) VALUES (?, ?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.id());
+                    ps.setString(2, row.nom());
+                    ps.setString(3, row.prenom());
+                    ps.setString(4, "client" + row.id() + "@example.com");
+                    ps.setString(5, String.format("+336%08d", row.id() % 100_000_000));
+                }));
+    }
+
+    private void insertRooms(long from, long to) {
+        SplittableRandom random = chunkRandom(1, from);
+        List<RoomRow> rows = new ArrayList<>((int) (to - from + 1));
+        for (long id = from; id <= to; id++) {
+            boolean simple = random.nextInt(5) < 2;
+            int euros = simple ? 60 + random.nextInt(80) : 100 + random.nextInt(200);
+            rows.add(new RoomRow(id, simple ? TypeChambre.SIMPLE : TypeChambre.DOUBLE,
+                    BigDecimal.valueOf(euros * 100L + (random.nextBoolean() ? 99 : 0), 2),
+                    random.nextInt(20) != 0));
+        }
+        onEveryShard(() -> jdbcTemplate.batchUpdate(
+                "INSERT INTO chambres (id, type, prix, disponible) VALUES (?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.id());
+                    ps.setString(2, row.type().name());
+                    ps.setBigDecimal(3, row.prix());
+                    ps.setBoolean(4, row.disponible());
+                }));
+    }
+
+    /**
+     * Stays of rooms from..to, with IDs numbered room after room
+     */
+    private void insertReservations(int from, int to) {
+        SplittableRandom random = chunkRandom(2, from);
+        long perRoom = reservations / rooms;
+        long extra = reservations % rooms;
+        long id = (from - 1) * perRoom + Math.min(from - 1, extra) + 1;
+        List<StayRow> rows = new ArrayList<>(batchSize);
+        for (int room = from; room <= to; room++) {
+            long stays = perRoom + (room - 1 < extra ? 1 : 0);
+            LocalDate day = firstDate.plusDays(random.nextInt(14));
+            for (long i = 0; i < stays; i++) {
+                // Mostly short stays and gaps, with a long tail (at most two weeks)
+                int nights = 1 + Math.min(13, geometric(random, 0.35));
+                LocalDate dateFin = day.plusDays(nights - 1);
+                rows.add(new StayRow(id++, 1 + random.nextInt(clients), room, day, dateFin,
+                        random.nextInt(10) < 3 ? pick(PREFERENCES, random) : null));
+                if (rows.size() == batchSize) {
+                    insertStays(rows);
+                }
+                day = dateFin.plusDays(1 + geometric(random, 0.4));
+            }
+        }
+        if (!rows.isEmpty()) {
+            insertStays(rows);
+        }
+    }
+
+    private void insertStays(List<StayRow> rows) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            insertStayBatch(rows);
+        } else {
+            Map<Integer, List<StayRow>> rowsByShard = rows.stream()
+                    .collect(Collectors.groupingBy(row -> router.shardOf(row.chambreId())));
+            rowsByShard.forEach((shard, shardRows) -> router.run(shard, () -> insertStayBatch(shardRows)));
+        }
+        rows.clear();
+    }
+
+    // Typed setters: untyped arguments cost a parameter metadata lookup per null
+    private void insertStayBatch(List<StayRow> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO reservations "
+                        + "(id, client_id, chambre_id, date_debut, date_fin, preferences) VALUES (?, ?, ?, ?, ?, ?)",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.id());
+                    ps.setLong(2, row.clientId());
+                    ps.setLong(3, row.chambreId());
+                    ps.setObject(4, row.dateDebut());
+                    ps.setObject(5, row.dateFin());
+                    if (row.preferences() == null) {
+                        ps.setNull(6, Types.VARCHAR);
+                    } else {
+                        ps.setString(6, row.preferences());
+                    }
+                });
+    }
+
+    /**
+     * Run work on every shard, or once without sharding
+     */
+    private void onEveryShard(Runnable work) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            work.run();
+            return;
+        }
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            router.run(shard, work);
+        }
+    }
+
+    private SplittableRandom chunkRandom(int table, long firstId) {
+        return new SplittableRandom(seed * 31 + table * 1_000_000_007L + firstId);
+    }
+
+    private static int geometric(SplittableRandom random, double p) {
+        return (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private record ClientRow(long id, String nom, String prenom) {
+    }
+
+    private record RoomRow(long id, TypeChambre type, BigDecimal prix, boolean disponible) {
+    }
+
+    private record StayRow(long id, long clientId, long chambreId, LocalDate dateDebut, LocalDate dateFin,
+            String preferences) {
+    }
+}
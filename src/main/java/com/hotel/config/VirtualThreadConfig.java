@@ -0,0 +1,42 @@
+package com.hotel.config;
+
+import com.hotel.metrics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode, active with spring.threads.virtual.enabled=true on Java 21+.
+ * Spring Boot already moves Tomcat (REST, SOAP, GraphQL over HTTP), the
+ * application task executor (streaming responses, GraphQL async controller
+ * methods) and CXF invocations, which run on the servlet thread, to virtual
+ * threads. This adds the gRPC call executor and monitors carrier pinning.
+ * With protocol bulkheads, their pools spawn virtual threads instead.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "hotel.bulkhead.enabled", havingValue = "false")
+    public GrpcServerConfigurer grpcVirtualThreadExecutor() {
+        log.info("gRPC calls will run on virtual threads");
+        return serverBuilder -> serverBuilder.executor(new VirtualThreadTaskExecutor("grpc-"));
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry registry,
+            @Value("${hotel.threads.pinned-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(registry, threshold);
+    }
+}
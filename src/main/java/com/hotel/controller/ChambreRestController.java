@@ -0,0 +1,42 @@
+package com.hotel.controller;
+
+import com.hotel.dto.ChambreDTO;
+import com.hotel.entity.TypeChambre;
+import com.hotel.service.ChambreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller for room search.
+ * Exposes the ChambreService via JSON/HTTP endpoints.
+ */
+@RestController
+@RequestMapping("/api/chambres")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class ChambreRestController {
+
+    private final ChambreService chambreService;
+
+    /**
+     * Search rooms free for a stay
+     * GET /api/chambres/available?type={type}&dateDebut={date}&dateFin={date}&maxPrix={prix}
+     */
+    @GetMapping("/available")
+    public ResponseEntity<List<ChambreDTO>> searchAvailableRooms(
+            @RequestParam(required = false) TypeChambre type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam(required = false) BigDecimal maxPrix) {
+        log.info("REST: Searching {} rooms free from {} to {}", type, dateDebut, dateFin);
+        return ResponseEntity.ok(chambreService.searchAvailableRooms(type, dateDebut, dateFin, maxPrix));
+    }
+}
@@ -0,0 +1,68 @@
+package com.hotel.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The byte representations a reservation is served in, in order of preference
+ * for a wildcard Accept (JSON first, as in ContentNegotiationConfig). A
+ * reservation's ETag names its format, so each representation has its own.
+ */
+public enum ReservationFormat {
+
+    JSON(MediaType.APPLICATION_JSON, "json"),
+    CBOR(MediaType.APPLICATION_CBOR, "cbor"),
+    SMILE(new MediaType("application", "x-jackson-smile"), "smile"),
+    PROTOBUF(ReservationProtobufHttpMessageConverter.APPLICATION_PROTOBUF, "protobuf");
+
+    // Highest quality first, then concrete types before wildcards
+    private static final Comparator<MediaType> PREFERENCE = Comparator
+            .comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype);
+
+    private final MediaType mediaType;
+    private final String tag;
+
+    ReservationFormat(MediaType mediaType, String tag) {
+        this.mediaType = mediaType;
+        this.tag = tag;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Strong ETag of this representation at the given version, such as "3-json"
+     */
+    public String etag(Long version) {
+        return "\"" + version + "-" + tag + "\"";
+    }
+
+    /**
+     * Format to answer an Accept header with, or empty if none is acceptable
+     */
+    public static Optional<ReservationFormat> negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(JSON);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        return accepted.stream()
+                .filter(type -> type.getQualityValue() > 0)
+                .sorted(PREFERENCE)
+                .flatMap(type -> Arrays.stream(values())
+                        .filter(format -> type.includes(format.mediaType)))
+                .findFirst();
+    }
+}
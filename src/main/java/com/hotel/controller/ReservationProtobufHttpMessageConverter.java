@@ -0,0 +1,94 @@
+package com.hotel.controller;
+
+import com.google.protobuf.Message;
+import com.hotel.dto.ReservationDTO;
+import com.hotel.grpc.ReservationGrpcServiceImpl;
+import com.hotel.grpc.generated.ReservationListProto;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes reservations as application/x-protobuf with the messages of the gRPC
+ * API: a single reservation as a ReservationProto, a list as a
+ * ReservationListProto. Write-only, request bodies stay in the Jackson formats.
+ */
+public class ReservationProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public ReservationProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ReservationDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(mediaType) && (supports(clazz) || isReservationList(type));
+    }
+
+    // Lists are only told apart by their generic type, checked in canWrite
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        Message message;
+        if (body instanceof ReservationDTO reservation) {
+            message = ReservationGrpcServiceImpl.convertToProto(reservation);
+        } else {
+            ReservationListProto.Builder list = ReservationListProto.newBuilder();
+            for (Object reservation : (List<?>) body) {
+                list.addReservations(ReservationGrpcServiceImpl.convertToProto((ReservationDTO) reservation));
+            }
+            message = list.build();
+        }
+        outputMessage.getHeaders().setContentLength(message.getSerializedSize());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    // Not reached while canRead is false; answers 400 rather than 500 if it ever is
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    private static boolean isReservationList(@Nullable Type type) {
+        if (type == null) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && resolved.getGeneric(0).toClass() == ReservationDTO.class;
+    }
+}
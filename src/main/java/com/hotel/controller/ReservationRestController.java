@@ -1,20 +1,41 @@
 package com.hotel.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFieldsPage;
+import com.hotel.dto.ReservationFilter;
+import com.hotel.dto.ReservationPage;
 import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.exception.BusinessException;
 import com.hotel.service.ReservationService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * REST Controller for Reservation CRUD operations.
- * Exposes the ReservationService via JSON/HTTP endpoints.
+ * Exposes the ReservationService via JSON/HTTP endpoints. A single
+ * reservation carries its version and format as ETag: GET honors
+ * If-None-Match and PUT honors If-Match. Responses vary by Accept and
+ * Accept-Encoding.
  */
 @RestController
 @RequestMapping("/api/reservations")
@@ -23,7 +44,11 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ReservationRestController {
 
+    /** An ETag of this API: the version, and the format since ETags name one representation */
+    private static final Pattern ETAG = Pattern.compile("\"(\\d{1,18})(-[a-z]+)?\"");
+
     private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new reservation
@@ -31,45 +56,119 @@ public class ReservationRestController {
      */
     @PostMapping
     public ResponseEntity<ReservationDTO> createReservation(
-            @Valid @RequestBody ReservationRequestDTO request) {
+            @Valid @RequestBody ReservationRequestDTO request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("REST: Creating reservation");
         ReservationDTO created = reservationService.createReservation(request);
+        return representation(ResponseEntity.status(HttpStatus.CREATED), ReservationFormat.negotiate(accept),
+                created.getVersion()).body(created);
+    }
+
+    /**
+     * Create a batch of reservations, all or nothing
+     * POST /api/reservations/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationDTO>> createReservations(
+            @Valid @RequestBody List<@Valid @NotNull ReservationRequestDTO> requests) {
+        log.info("REST: Creating batch of {} reservations", requests.size());
+        List<ReservationDTO> created = reservationService.createReservations(requests);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     /**
      * Get a reservation by ID
      * GET /api/reservations/{id}
+     * Answers 304 Not Modified when If-None-Match holds the current ETag of
+     * the negotiated format.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ReservationDTO> getReservation(@PathVariable Long id) {
+    public ResponseEntity<ReservationDTO> getReservation(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("REST: Fetching reservation with id: {}", id);
+        Optional<ReservationFormat> format = ReservationFormat.negotiate(accept);
+        // Compared with the cached reservation's version, so an unchanged one is not serialized
         ReservationDTO reservation = reservationService.getReservationById(id);
-        return ResponseEntity.ok(reservation);
+        if (ifNoneMatch != null && format.isPresent()) {
+            String etag = format.get().etag(reservation.getVersion());
+            boolean matches = etags(ifNoneMatch).stream()
+                    .anyMatch(tag -> tag.equals("*") || tag.replaceFirst("^W/", "").equals(etag));
+            if (matches) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+        }
+        return representation(ResponseEntity.ok(), format, reservation.getVersion()).body(reservation);
     }
 
     /**
-     * Get all reservations
-     * GET /api/reservations
+     * Get a page of reservations ordered by ID
+     * GET /api/reservations?after={id}&limit={n}
+     * The next page, if any, is advertised in a Link header (rel="next").
      */
     @GetMapping
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        log.info("REST: Fetching all reservations");
-        List<ReservationDTO> reservations = reservationService.getAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationDTO>> getAllReservations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("REST: Fetching reservations after id: {}", after);
+        ReservationPage page = reservationService.getReservations(after, limit);
+        return pageResponse(page.getItems(), page.isHasNext(), page.getNextAfter());
+    }
+
+    /**
+     * Get a page of reservations holding only the given fields
+     * GET /api/reservations?fields=dateDebut,client.nom,chambre&after={id}&limit={n}
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getReservationFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("REST: Fetching fields {} of reservations after id: {}", fields, after);
+        ReservationFieldsPage page = reservationService.getReservationFields(ReservationFields.parse(fields),
+                new ReservationFilter(), after, limit);
+        return pageResponse(page.getItems(), page.isHasNext(), page.getNextAfter());
+    }
+
+    /**
+     * Stream all reservations as newline-delimited JSON
+     * GET /api/reservations (Accept: application/x-ndjson)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReservations(
+            @RequestParam(required = false) Long after) {
+        log.info("REST: Streaming reservations after id: {}", after);
+        StreamingResponseBody body = out -> reservationService.streamReservations(after, reservation -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(reservation));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * Update an existing reservation
      * PUT /api/reservations/{id}
+     * With If-Match, answers 412 Precondition Failed unless it holds the current ETag.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ReservationDTO> updateReservation(
             @PathVariable Long id,
-            @Valid @RequestBody ReservationRequestDTO request) {
+            @Valid @RequestBody ReservationRequestDTO request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("REST: Updating reservation with id: {}", id);
-        ReservationDTO updated = reservationService.updateReservation(id, request);
-        return ResponseEntity.ok(updated);
+        ReservationDTO updated = reservationService.updateReservation(id, request, expectedVersion(ifMatch));
+        return representation(ResponseEntity.ok(), ReservationFormat.negotiate(accept), updated.getVersion())
+                .body(updated);
     }
 
     /**
@@ -84,14 +183,90 @@ public class ReservationRestController {
     }
 
     /**
-     * Get reservations by client ID
-     * GET /api/reservations/client/{clientId}
+     * Get a page of reservations by client ID
+     * GET /api/reservations/client/{clientId}?after={id}&limit={n}
      */
     @GetMapping("/client/{clientId}")
     public ResponseEntity<List<ReservationDTO>> getReservationsByClient(
-            @PathVariable Long clientId) {
+            @PathVariable Long clientId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         log.info("REST: Fetching reservations for client: {}", clientId);
-        List<ReservationDTO> reservations = reservationService.getReservationsByClient(clientId);
-        return ResponseEntity.ok(reservations);
+        ReservationPage page = reservationService.getReservationsByClient(clientId, after, limit);
+        return pageResponse(page.getItems(), page.isHasNext(), page.getNextAfter());
+    }
+
+    /**
+     * Get a page of reservations by client ID holding only the given fields
+     * GET /api/reservations/client/{clientId}?fields=...&after={id}&limit={n}
+     */
+    @GetMapping(value = "/client/{clientId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getReservationFieldsByClient(
+            @PathVariable Long clientId,
+            @RequestParam String fields,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("REST: Fetching fields {} of reservations for client: {}", fields, clientId);
+        ReservationFilter filter = ReservationFilter.builder().clientId(clientId).build();
+        ReservationFieldsPage page = reservationService.getReservationFields(ReservationFields.parse(fields),
+                filter, after, limit);
+        return pageResponse(page.getItems(), page.isHasNext(), page.getNextAfter());
+    }
+
+    /**
+     * Answer with a single reservation in the negotiated format, fixed here so
+     * that the ETag names the format actually written. With no acceptable
+     * format, Spring's own negotiation answers 406.
+     */
+    private static ResponseEntity.BodyBuilder representation(ResponseEntity.BodyBuilder response,
+            Optional<ReservationFormat> format, Long version) {
+        response.varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        format.ifPresent(f -> response.contentType(f.getMediaType()).eTag(f.etag(version)));
+        return response;
+    }
+
+    /**
+     * Version required by an If-Match header, or null if any version will do.
+     * The version is what a write is conditional on, so the ETag of any format
+     * will do.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        List<String> tags = etags(ifMatch);
+        if (tags.isEmpty() || tags.contains("*")) {
+            return null;
+        }
+        Matcher tag = ETAG.matcher(tags.get(0));
+        if (tags.size() != 1 || !tag.matches()) {
+            throw new BusinessException("If-Match must hold a single ETag of this reservation");
+        }
+        return Long.valueOf(tag.group(1));
+    }
+
+    /**
+     * Entity tags listed in an If-Match or If-None-Match header
+     */
+    private static List<String> etags(String header) {
+        if (header == null) {
+            return List.of();
+        }
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Build a list response with a Link header pointing to the next page
+     */
+    private static <T> ResponseEntity<List<T>> pageResponse(List<T> items, boolean hasNext, Long nextAfter) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (hasNext) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextAfter)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(items);
     }
 }
@@ -0,0 +1,36 @@
+package com.hotel.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Marks reads of the current thread that must go to the primary even in a
+ * read-only transaction, such as the loads filling a shared cache: a row read
+ * from a lagging replica would be served to every caller until it expires,
+ * not just for the replication lag
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Run a read whose connections, fetched on first use, come from the primary
+     */
+    public static <T> T call(Callable<T> read) throws Exception {
+        if (ACTIVE.get() != null) {
+            return read.call();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.call();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotel.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Tracks the last read-write transaction of the current thread, so reads
+ * following a write in the same request are served by the primary instead
+ * of a replica that may not have applied it yet
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Record a write of the current thread when its transaction commits: the
+     * replicas lag behind the commit, not the start of the transaction, so a
+     * long transaction must not use up the window before it ends
+     */
+    static void markWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            LAST_WRITE.set(System.nanoTime());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                LAST_WRITE.set(System.nanoTime());
+            }
+        });
+    }
+
+    /**
+     * Whether the current thread wrote within the given window
+     */
+    static boolean wroteWithin(Duration window) {
+        Long lastWrite = LAST_WRITE.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < window.toNanos();
+    }
+
+    /**
+     * Forget earlier writes, at the boundary of a request
+     */
+    public static void clear() {
+        LAST_WRITE.remove();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotel.datasource;
+
+import javax.sql.DataSource;
+
+/**
+ * A read replica and its last observed state. A replica starts healthy and
+ * is taken out of rotation while unreachable or lagging beyond tolerance.
+ */
+public class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+    private volatile long lagMillis;
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    void update(boolean healthy, long lagMillis) {
+        this.healthy = healthy;
+        this.lagMillis = lagMillis;
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotel.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically checks each replica and takes it out of rotation while it is
+ * unreachable or lags the primary by more than the tolerance. The lag comes
+ * from a database-specific query returning milliseconds (e.g. PostgreSQL's
+ * replay timestamp); without one, only reachability is checked.
+ * Lag is published as hotel.datasource.replica.lag.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration interval;
+    private ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(List<Replica> replicas, String lagQuery, Duration maxLag, Duration interval,
+            MeterRegistry registry) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.interval = interval;
+        for (Replica replica : replicas) {
+            Gauge.builder("hotel.datasource.replica.lag", replica, Replica::getLagMillis)
+                    .description("Last measured replication lag")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-monitor-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::checkAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    private void checkAll() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            try {
+                long lagMillis = measureLag(replica);
+                replica.update(lagMillis <= maxLag.toMillis(), lagMillis);
+                if (wasHealthy && !replica.isHealthy()) {
+                    log.warn("Replica {} lags by {} ms, routing its reads to the primary", replica.getName(), lagMillis);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.update(false, replica.getLagMillis());
+                if (wasHealthy) {
+                    log.warn("Replica {} is unreachable, routing its reads to the primary: {}",
+                            replica.getName(), e.getMessage());
+                }
+            }
+            if (!wasHealthy && replica.isHealthy()) {
+                log.info("Replica {} is back in rotation", replica.getName());
+            }
+        }
+    }
+
+    private long measureLag(Replica replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                if (!connection.isValid((int) Math.max(1, interval.toSeconds()))) {
+                    throw new SQLException("Connection validation failed");
+                }
+                return 0;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() ? Math.max(0, rs.getLong(1)) : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotel.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to healthy replicas, round-robin, and
+ * everything else to the primary. After a read-write transaction commits,
+ * reads on the same thread stay on the primary for the replication lag
+ * tolerance, so a request reads its own writes. Reads in a PrimaryReads scope,
+ * such as cache loads, stay on the primary too. Falls back to the primary
+ * when no replica is healthy.
+ * <p>
+ * The routing decision needs the transaction's read-only flag, which is only
+ * exposed once the transaction has begun: wrap this data source in a
+ * LazyConnectionDataSourceProxy so connections are fetched at first use.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration stickiness;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration stickiness,
+            MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.stickiness = stickiness;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, routedCounter(registry, PRIMARY));
+        for (Replica replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+            routed.put(replica.getName(), routedCounter(registry, replica.getName()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = route();
+        routed.get(target).increment();
+        return target;
+    }
+
+    private String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (PrimaryReads.isActive() || ReadYourWrites.wroteWithin(stickiness)) {
+            return PRIMARY;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.isHealthy()) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public void destroy() {
+        close(primary);
+        replicas.forEach(replica -> close(replica.getDataSource()));
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+
+    private static Counter routedCounter(MeterRegistry registry, String target) {
+        return Counter.builder("hotel.datasource.routed")
+                .description("Connections handed out, by target database")
+                .tag("target", target)
+                .register(registry);
+    }
+}
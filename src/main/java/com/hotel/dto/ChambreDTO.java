@@ -1,5 +1,6 @@
 package com.hotel.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hotel.entity.TypeChambre;
 import lombok.*;
 
@@ -17,4 +18,8 @@ public class ChambreDTO {
     private TypeChambre type;
     private BigDecimal prix;
     private Boolean disponible;
+
+    /** Only the ID is set; the chambre was not loaded (ReservationFetch.REFERENCES) */
+    @JsonIgnore
+    private boolean reference;
 }
@@ -1,5 +1,6 @@
 package com.hotel.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 /**
@@ -15,4 +16,8 @@ public class ClientDTO {
     private String prenom;
     private String email;
     private String telephone;
+
+    /** Only the ID is set; the client was not loaded (ReservationFetch.REFERENCES) */
+    @JsonIgnore
+    private boolean reference;
 }
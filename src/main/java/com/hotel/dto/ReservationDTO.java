@@ -18,4 +18,5 @@ public class ReservationDTO {
     private LocalDate dateDebut;
     private LocalDate dateFin;
     private String preferences;
+    private Long version;
 }
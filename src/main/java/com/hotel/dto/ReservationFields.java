@@ -0,0 +1,61 @@
+package com.hotel.dto;
+
+import com.hotel.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sparse fieldset of a reservation, such as "dateDebut,client.nom,chambre".
+ * Client and chambre fields are named "client.x" and "chambre.x", or selected
+ * whole as "client" and "chambre". The ID is always included, as pages
+ * continue after it.
+ */
+public final class ReservationFields {
+
+    public static final List<String> RESERVATION = List.of("id", "dateDebut", "dateFin", "preferences", "version");
+    public static final List<String> CLIENT = List.of("id", "nom", "prenom", "email", "telephone");
+    public static final List<String> CHAMBRE = List.of("id", "type", "prix", "disponible");
+
+    private final List<String> paths;
+
+    private ReservationFields(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public static ReservationFields parse(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.equals("client") || name.equals("chambre")) {
+                (name.equals("client") ? CLIENT : CHAMBRE).forEach(attribute -> requested.add(name + "." + attribute));
+            } else if (!name.isEmpty()) {
+                requested.add(name);
+            }
+        }
+        // In a fixed order, so equal fieldsets give the same query and layout
+        List<String> paths = new ArrayList<>(requested.size());
+        RESERVATION.stream().filter(requested::remove).forEach(paths::add);
+        CLIENT.stream().map(attribute -> "client." + attribute).filter(requested::remove).forEach(paths::add);
+        CHAMBRE.stream().map(attribute -> "chambre." + attribute).filter(requested::remove).forEach(paths::add);
+        if (!requested.isEmpty()) {
+            throw new BusinessException("Unknown fields: " + String.join(", ", requested));
+        }
+        return new ReservationFields(List.copyOf(paths));
+    }
+
+    /**
+     * Selected fields, reservation first, then client and chambre as "client.x" and "chambre.x"
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", paths);
+    }
+}
@@ -0,0 +1,20 @@
+package com.hotel.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a keyset page of reservations ordered by ID, each holding only the
+ * fields of a ReservationFields, with client and chambre fields nested
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationFieldsPage {
+    private List<Map<String, Object>> items;
+    private boolean hasNext;
+    private Long nextAfter;
+}
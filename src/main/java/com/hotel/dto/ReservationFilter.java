@@ -0,0 +1,20 @@
+package com.hotel.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Optional criteria for listing reservations; null fields match everything.
+ * dateDebut/dateFin select reservations overlapping that window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationFilter {
+    private Long clientId;
+    private Long chambreId;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+}
@@ -0,0 +1,18 @@
+package com.hotel.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for a keyset page of reservations ordered by ID
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationPage {
+    private List<ReservationDTO> items;
+    private boolean hasNext;
+    private Long nextAfter;
+}
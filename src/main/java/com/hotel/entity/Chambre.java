@@ -1,5 +1,7 @@
 package com.hotel.entity;
 
+import com.hotel.config.ReferenceDataCacheInvalidator;
+import com.hotel.sharding.ReferenceDataReplicator;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +11,7 @@ import java.math.BigDecimal;
  * Chambre (Room) entity representing hotel rooms
  */
 @Entity
+@EntityListeners({ReferenceDataCacheInvalidator.class, ReferenceDataReplicator.class})
 @Table(name = "chambres")
 @Data
 @NoArgsConstructor
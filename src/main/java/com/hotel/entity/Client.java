@@ -1,5 +1,7 @@
 package com.hotel.entity;
 
+import com.hotel.config.ReferenceDataCacheInvalidator;
+import com.hotel.sharding.ReferenceDataReplicator;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +9,7 @@ import lombok.*;
  * Client entity representing hotel guests
  */
 @Entity
+@EntityListeners({ReferenceDataCacheInvalidator.class, ReferenceDataReplicator.class})
 @Table(name = "clients")
 @Data
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.hotel.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -16,8 +17,10 @@ import java.time.LocalDate;
 @Builder
 public class Reservation {
 
+    // Pooled sequence allocation keeps JDBC insert batching enabled
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,4 +39,10 @@ public class Reservation {
 
     @Column(length = 500)
     private String preferences;
+
+    // Bumped on every update; the default covers rows inserted over JDBC
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
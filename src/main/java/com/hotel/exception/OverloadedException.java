@@ -0,0 +1,38 @@
+package com.hotel.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when admission control sheds a request, either because the
+ * service is at its concurrency limit or because the caller exceeded its rate
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final boolean rateLimited;
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, boolean rateLimited, Duration retryAfter) {
+        // Thrown at high rates under overload, so without the cost of a stack trace
+        super(message, null, false, false);
+        this.rateLimited = rateLimited;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Whether the caller's own rate was exceeded, rather than the service's capacity
+     */
+    public boolean isRateLimited() {
+        return rateLimited;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Delay before retrying in whole seconds, as sent in Retry-After
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,11 @@
+package com.hotel.exception;
+
+/**
+ * Exception thrown when a resource is not at the version a conditional update expects
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String resourceName, Long id, Long expectedVersion) {
+        super(String.format("%s with id %d is no longer at version %d", resourceName, id, expectedVersion));
+    }
+}
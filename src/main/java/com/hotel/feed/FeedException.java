@@ -0,0 +1,12 @@
+package com.hotel.feed;
+
+/**
+ * A subscription that cannot be served from the change feed: its offset is
+ * no longer retained or not yet published, or it fell too far behind
+ */
+public class FeedException extends RuntimeException {
+
+    public FeedException(String message) {
+        super(message);
+    }
+}
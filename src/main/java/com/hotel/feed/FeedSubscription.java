@@ -0,0 +1,132 @@
+package com.hotel.feed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A subscriber's position in the change feed. Events are read from the ring
+ * and handed to the sink on a dispatch thread, as far as the sink is ready
+ * for them; the sink signals when it is ready again. Once caught up, the
+ * subscription is parked: it holds no thread and no queue, and only a
+ * matching event wakes it, from where it resumes without scanning the events
+ * it missed, none of which matched.
+ */
+@Slf4j
+public final class FeedSubscription implements AutoCloseable {
+
+    static final long NONE = -1;
+
+    private final ReservationChangeFeed feed;
+    private final Long chambreId;
+    private final Long clientId;
+    private final ReservationEventSink sink;
+    private final Executor executor;
+
+    // Drain passes pending, so only one runs at a time
+    private final AtomicInteger pending = new AtomicInteger();
+    // Offset of the event that woke it while parked, set by the publisher
+    private final AtomicLong wokenAt = new AtomicLong(NONE);
+    // Offset of the next event to read, only used by the drain
+    private long cursor;
+    // Guarded by the feed's publish lock
+    boolean parked;
+    private volatile boolean closed;
+
+    FeedSubscription(ReservationChangeFeed feed, Long chambreId, Long clientId, long cursor,
+            ReservationEventSink sink, Executor executor) {
+        this.feed = feed;
+        this.chambreId = chambreId;
+        this.clientId = clientId;
+        this.cursor = cursor;
+        this.sink = sink;
+        this.executor = executor;
+    }
+
+    Long getChambreId() {
+        return chambreId;
+    }
+
+    Long getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Deliver pending events, on a dispatch thread; called when the sink is
+     * ready for more
+     */
+    public void signal() {
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Called by the publisher, under its lock, for a matching event while parked
+     */
+    void wake(long offset) {
+        parked = false;
+        wokenAt.set(offset);
+        signal();
+    }
+
+    boolean matches(ReservationEvent event) {
+        return (chambreId == null || chambreId.equals(event.chambreId())
+                        || chambreId.equals(event.previousChambreId()))
+                && (clientId == null || clientId.equals(event.clientId())
+                        || clientId.equals(event.previousClientId()));
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            feed.unregister(this);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            try {
+                drainReady();
+            } catch (RuntimeException e) {
+                // The stream failed or went away mid-delivery
+                log.debug("Closing change feed subscription: {}", e.getMessage());
+                close();
+            }
+            missed = pending.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainReady() {
+        while (!closed) {
+            long woken = wokenAt.getAndSet(NONE);
+            if (woken > cursor) {
+                cursor = woken;
+            }
+            if (cursor == feed.head()) {
+                if (feed.park(this, cursor)) {
+                    return;
+                }
+                continue;
+            }
+            if (!sink.isReady()) {
+                return;
+            }
+            ReservationEvent event = feed.read(cursor);
+            if (event == null) {
+                close();
+                sink.onError(new FeedException("Subscriber fell behind the change feed at offset " + cursor
+                        + ", resubscribe after reloading the reservations"));
+                return;
+            }
+            cursor++;
+            if (matches(event)) {
+                sink.onEvent(event);
+            }
+        }
+    }
+}
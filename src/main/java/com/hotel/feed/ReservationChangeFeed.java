@@ -0,0 +1,210 @@
+package com.hotel.feed;
+
+import com.hotel.dto.ReservationDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * Feed of committed reservation changes for live subscribers. Events get
+ * consecutive offsets and are kept in a bounded ring buffer, so a subscriber
+ * can resume after the last offset it saw as long as the event is still
+ * retained. Subscribers are indexed by their room or client filter, and a
+ * publish only wakes the parked subscribers its event matches: an idle
+ * subscriber costs its entry in the index. A subscriber reading slower than
+ * events overwrite the ring is ended with a {@link FeedException}.
+ * <p>
+ * Offsets restart from 0 with the application, and each instance has its
+ * own feed of the changes it committed.
+ * Published as hotel.feed.offset and hotel.feed.subscribers.
+ */
+@Component
+@Slf4j
+public class ReservationChangeFeed {
+
+    private final AtomicReferenceArray<ReservationEvent> ring;
+    private final int mask;
+    private final ExecutorService executor;
+
+    private final Object publishLock = new Object();
+    // Offset of the next event, written under the publish lock after its slot
+    private volatile long head;
+
+    private final Set<FeedSubscription> unfiltered = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Set<FeedSubscription>> byChambre = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<FeedSubscription>> byClient = new ConcurrentHashMap<>();
+
+    public ReservationChangeFeed(@Value("${hotel.feed.capacity:16384}") int capacity,
+            @Value("${hotel.feed.dispatch-threads:2}") int dispatchThreads,
+            MeterRegistry registry) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("feed-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(dispatchThreads, threadFactory);
+        Gauge.builder("hotel.feed.offset", this, ReservationChangeFeed::head)
+                .description("Offset of the next reservation change event")
+                .register(registry);
+        Gauge.builder("hotel.feed.subscribers", this, ReservationChangeFeed::subscriberCount)
+                .description("Live change feed subscriptions")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public void publishCreated(ReservationDTO reservation) {
+        publish(ReservationChangeType.CREATED, reservation.getId(), reservation.getChambre().getId(),
+                reservation.getClient().getId(), null, null, reservation);
+    }
+
+    public void publishUpdated(ReservationDTO reservation, Long previousChambreId, Long previousClientId) {
+        Long chambreId = reservation.getChambre().getId();
+        Long clientId = reservation.getClient().getId();
+        publish(ReservationChangeType.UPDATED, reservation.getId(), chambreId, clientId,
+                chambreId.equals(previousChambreId) ? null : previousChambreId,
+                clientId.equals(previousClientId) ? null : previousClientId, reservation);
+    }
+
+    public void publishDeleted(Long reservationId, Long chambreId, Long clientId) {
+        publish(ReservationChangeType.DELETED, reservationId, chambreId, clientId, null, null, null);
+    }
+
+    /**
+     * Subscribe to the events matching the room and client, either of which
+     * may be null for any, after the given offset or, if null, from now on.
+     * Nothing is delivered until the sink first {@link FeedSubscription#signal() signals}.
+     */
+    public FeedSubscription subscribe(Long chambreId, Long clientId, Long afterOffset, ReservationEventSink sink) {
+        FeedSubscription subscription;
+        synchronized (publishLock) {
+            long cursor = afterOffset == null ? head : afterOffset + 1;
+            if (cursor > head) {
+                throw new FeedException("Offset " + afterOffset + " has not been published, the next is " + head);
+            }
+            if (cursor < oldest()) {
+                throw new FeedException("Offset " + afterOffset + " is no longer retained, the oldest is "
+                        + oldest());
+            }
+            subscription = new FeedSubscription(this, chambreId, clientId, cursor, sink, executor);
+            register(subscription);
+        }
+        log.debug("Subscribed to reservation changes for room {} and client {} from offset {}",
+                chambreId, clientId, afterOffset);
+        return subscription;
+    }
+
+    long head() {
+        return head;
+    }
+
+    /**
+     * The event at an offset below the head, or null once overwritten
+     */
+    ReservationEvent read(long offset) {
+        ReservationEvent event = ring.get((int) (offset & mask));
+        return event != null && event.offset() == offset ? event : null;
+    }
+
+    /**
+     * Park a subscription caught up at the offset, unless events were published since
+     */
+    boolean park(FeedSubscription subscription, long offset) {
+        synchronized (publishLock) {
+            if (head != offset) {
+                return false;
+            }
+            subscription.parked = true;
+            return true;
+        }
+    }
+
+    void unregister(FeedSubscription subscription) {
+        index(subscription, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private void publish(ReservationChangeType type, Long reservationId, Long chambreId, Long clientId,
+            Long previousChambreId, Long previousClientId, ReservationDTO reservation) {
+        synchronized (publishLock) {
+            long offset = head;
+            ReservationEvent event = new ReservationEvent(offset, type, reservationId, chambreId, clientId,
+                    previousChambreId, previousClientId, reservation);
+            ring.set((int) (offset & mask), event);
+            head = offset + 1;
+
+            wake(unfiltered, event);
+            wake(byChambre.get(chambreId), event);
+            wake(byClient.get(clientId), event);
+            if (previousChambreId != null) {
+                wake(byChambre.get(previousChambreId), event);
+            }
+            if (previousClientId != null) {
+                wake(byClient.get(previousClientId), event);
+            }
+        }
+    }
+
+    private static void wake(Collection<FeedSubscription> subscriptions, ReservationEvent event) {
+        if (subscriptions == null) {
+            return;
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            if (subscription.parked && subscription.matches(event)) {
+                subscription.wake(event.offset());
+            }
+        }
+    }
+
+    private void register(FeedSubscription subscription) {
+        index(subscription, (id, subscriptions) -> {
+            Set<FeedSubscription> updated = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+    }
+
+    /**
+     * Apply a change to the subscriber set a subscription is indexed in, by
+     * room, else by client, else unfiltered; the client of a room subscriber
+     * is checked when it is woken. Emptied sets are dropped.
+     */
+    private void index(FeedSubscription subscription,
+            BiFunction<Long, Set<FeedSubscription>, Set<FeedSubscription>> change) {
+        if (subscription.getChambreId() != null) {
+            byChambre.compute(subscription.getChambreId(), change);
+        } else if (subscription.getClientId() != null) {
+            byClient.compute(subscription.getClientId(), change);
+        } else {
+            change.apply(null, unfiltered);
+        }
+    }
+
+    private long oldest() {
+        return Math.max(0, head - ring.length());
+    }
+
+    private int subscriberCount() {
+        return unfiltered.size()
+                + byChambre.values().stream().mapToInt(Set::size).sum()
+                + byClient.values().stream().mapToInt(Set::size).sum();
+    }
+}
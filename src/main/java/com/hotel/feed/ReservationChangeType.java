@@ -0,0 +1,8 @@
+package com.hotel.feed;
+
+/**
+ * Kind of a committed reservation change
+ */
+public enum ReservationChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,13 @@
+package com.hotel.feed;
+
+import com.hotel.dto.ReservationDTO;
+
+/**
+ * A committed reservation change, at its offset in the change feed. The
+ * reservation is its state after the change, null once deleted. The previous
+ * room and client are set when an update moved the reservation, so
+ * subscribers of the old room or client see it leave.
+ */
+public record ReservationEvent(long offset, ReservationChangeType type, Long reservationId, Long chambreId,
+        Long clientId, Long previousChambreId, Long previousClientId, ReservationDTO reservation) {
+}
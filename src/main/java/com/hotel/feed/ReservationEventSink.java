@@ -0,0 +1,20 @@
+package com.hotel.feed;
+
+/**
+ * Receiver of a subscription's events, adapting a protocol's stream. Called
+ * by one thread at a time; events only while {@link #isReady()} is true.
+ */
+public interface ReservationEventSink {
+
+    /**
+     * Whether the receiver accepts another event now
+     */
+    boolean isReady();
+
+    void onEvent(ReservationEvent event);
+
+    /**
+     * The subscription ended as it fell too far behind
+     */
+    void onError(FeedException error);
+}
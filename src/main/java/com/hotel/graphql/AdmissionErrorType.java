@@ -0,0 +1,20 @@
+package com.hotel.graphql;
+
+import graphql.ErrorClassification;
+
+/**
+ * Classifications of GraphQL errors for calls shed by admission control,
+ * alongside Spring's ErrorType
+ */
+public enum AdmissionErrorType implements ErrorClassification {
+
+    /**
+     * The service is at its concurrency limit
+     */
+    OVERLOADED,
+
+    /**
+     * The caller exceeded its rate limit
+     */
+    RATE_LIMITED
+}
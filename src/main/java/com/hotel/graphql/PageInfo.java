@@ -0,0 +1,18 @@
+package com.hotel.graphql;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * GraphQL Relay page information
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageInfo {
+    private boolean hasNextPage;
+    private boolean hasPreviousPage;
+    private String startCursor;
+    private String endCursor;
+}
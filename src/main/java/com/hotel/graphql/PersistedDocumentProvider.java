@@ -0,0 +1,94 @@
+package com.hotel.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryIdInvalid;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache of parsed and validated GraphQL documents, so a repeated query is
+ * neither parsed nor validated again, with Apollo Automatic Persisted Queries
+ * on top. A request with extensions.persistedQuery.sha256Hash runs the cached
+ * document of that hash; an unknown hash fails with PersistedQueryNotFound,
+ * and the client resends it with the query. A query sent along with a hash
+ * must match it, cached or not. Other requests are cached by their query
+ * text. Documents with errors are not cached, so invalid queries cannot evict
+ * valid ones.
+ */
+public class PersistedDocumentProvider extends ApolloPersistedQuerySupport {
+
+    public PersistedDocumentProvider(Cache<Object, PreparsedDocumentEntry> documents) {
+        super(new DocumentCache(documents));
+    }
+
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        if (getPersistedQueryId(executionInput).orElseThrow() instanceof String hash && hasText(query)
+                && persistedQueryIdIsInvalid(hash, query)) {
+            return mkMissingError(new PersistedQueryIdInvalid(hash));
+        }
+        return super.getDocument(executionInput, parseAndValidateFunction);
+    }
+
+    @Override
+    protected Optional<Object> getPersistedQueryId(ExecutionInput executionInput) {
+        Optional<Object> hash = super.getPersistedQueryId(executionInput);
+        if (hash.isPresent()) {
+            return Optional.of(hash.get().toString().toLowerCase(Locale.ROOT));
+        }
+        return Optional.of(new QueryText(executionInput.getQuery()));
+    }
+
+    @Override
+    protected boolean persistedQueryIdIsInvalid(Object persistedQueryId, String queryText) {
+        return persistedQueryId instanceof String && super.persistedQueryIdIsInvalid(persistedQueryId, queryText);
+    }
+
+    /**
+     * Whether a query was sent, rather than left out or replaced by the marker
+     */
+    private static boolean hasText(String query) {
+        return query != null && !query.isBlank() && !query.equals(PERSISTED_QUERY_MARKER);
+    }
+
+    /**
+     * Cache key of a query sent in full, kept apart from persisted query hashes
+     */
+    private record QueryText(String query) {
+    }
+
+    @RequiredArgsConstructor
+    private static final class DocumentCache implements PersistedQueryCache {
+
+        private final Cache<Object, PreparsedDocumentEntry> documents;
+
+        @Override
+        public PreparsedDocumentEntry getPersistedQueryDocument(Object persistedQueryId,
+                ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+            PreparsedDocumentEntry entry = documents.getIfPresent(persistedQueryId);
+            if (entry != null) {
+                return entry;
+            }
+            String query = executionInput.getQuery();
+            if (!hasText(query)) {
+                throw new PersistedQueryNotFound(persistedQueryId);
+            }
+            entry = onCacheMiss.apply(query);
+            if (!entry.hasErrors()) {
+                documents.put(persistedQueryId, entry);
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotel.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Cost of a field for query complexity analysis: 1 plus the cost of its
+ * selections, counted once per element for lists. Connection edges count as
+ * many elements as the page can hold, and other lists, which are unbounded,
+ * as unboundedListSize. Introspection is counted without multiplying.
+ */
+public class ReservationComplexityCalculator implements FieldComplexityCalculator {
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int unboundedListSize;
+    // A field over the limit exceeds it whatever else the query holds; the cap keeps sums from overflowing
+    private final int maxFieldComplexity;
+
+    public ReservationComplexityCalculator(int defaultPageSize, int maxPageSize, int unboundedListSize,
+            int maxComplexity) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.unboundedListSize = unboundedListSize;
+        this.maxFieldComplexity = maxComplexity + 1;
+    }
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        boolean list = GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()) instanceof GraphQLList;
+        if (!list || environment.getParentType().getName().startsWith("__")) {
+            return (int) Math.min(maxFieldComplexity, 1L + childComplexity);
+        }
+        return (int) Math.min(maxFieldComplexity, 1L + (long) elements(environment) * childComplexity);
+    }
+
+    private int elements(FieldComplexityEnvironment environment) {
+        FieldComplexityEnvironment connection = environment.getParentEnvironment();
+        if (connection == null || connection.getFieldDefinition().getArgument("first") == null) {
+            return unboundedListSize;
+        }
+        Object first = connection.getArguments().get("first");
+        return first instanceof Integer size ? Math.max(1, Math.min(size, maxPageSize)) : defaultPageSize;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hotel.graphql;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * GraphQL Relay connection of reservations
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationConnection {
+    private List<ReservationEdge> edges;
+    private PageInfo pageInfo;
+}
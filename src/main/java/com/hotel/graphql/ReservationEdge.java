@@ -0,0 +1,17 @@
+package com.hotel.graphql;
+
+import com.hotel.dto.ReservationDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * GraphQL Relay edge wrapping a reservation and its cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationEdge {
+    private String cursor;
+    private ReservationDTO node;
+}
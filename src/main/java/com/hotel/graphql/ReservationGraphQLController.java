@@ -1,47 +1,136 @@
 package com.hotel.graphql;
 
+import com.hotel.dto.ChambreDTO;
+import com.hotel.dto.ClientDTO;
 import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationPage;
 import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.entity.TypeChambre;
+import com.hotel.exception.BusinessException;
+import com.hotel.exception.OverloadedException;
+import com.hotel.feed.FeedException;
+import com.hotel.feed.FeedSubscription;
+import com.hotel.feed.ReservationChangeFeed;
+import com.hotel.feed.ReservationEvent;
+import com.hotel.feed.ReservationEventSink;
+import com.hotel.service.ChambreService;
+import com.hotel.service.ReferenceDataService;
+import com.hotel.service.ReservationFetch;
 import com.hotel.service.ReservationService;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.graphql.execution.ErrorType;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * GraphQL Controller for Reservation operations.
- * Provides Query and Mutation mappings for the GraphQL schema.
+ * Provides Query, Mutation and Subscription mappings for the GraphQL schema.
+ * Reservation.client and Reservation.chambre are resolved per request in one
+ * batched lookup per type, and only when the query selects them.
  */
 @Controller
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationGraphQLController {
 
+    private static final String CURSOR_PREFIX = "reservation:";
+
     private final ReservationService reservationService;
+    private final ReferenceDataService referenceDataService;
+    private final ChambreService chambreService;
+    private final ReservationChangeFeed changeFeed;
 
     // ==================== QUERIES ====================
 
+    // Served from the reservations cache like REST; the cached DTO carries its client and chambre
     @QueryMapping
     public ReservationDTO reservationById(@Argument Long id) {
         log.info("GraphQL: Fetching reservation with id: {}", id);
         return reservationService.getReservationById(id);
     }
 
+    @QueryMapping
+    public ReservationConnection reservations(@Argument Integer first, @Argument String after,
+            @Argument Long clientId) {
+        log.info("GraphQL: Fetching reservations after cursor: {}", after);
+        Long afterId = decodeCursor(after);
+        ReservationPage page = clientId != null
+                ? reservationService.getReservationsByClient(clientId, afterId, first, ReservationFetch.REFERENCES)
+                : reservationService.getReservations(afterId, first, ReservationFetch.REFERENCES);
+        return convertPageToConnection(page, afterId != null);
+    }
+
     @QueryMapping
     public List<ReservationDTO> allReservations() {
         log.info("GraphQL: Fetching all reservations");
-        return reservationService.getAllReservations();
+        return reservationService.getAllReservations(ReservationFetch.REFERENCES);
     }
 
     @QueryMapping
     public List<ReservationDTO> reservationsByClient(@Argument Long clientId) {
         log.info("GraphQL: Fetching reservations for client: {}", clientId);
-        return reservationService.getReservationsByClient(clientId);
+        return reservationService.getReservationsByClient(clientId, ReservationFetch.REFERENCES);
+    }
+
+    @QueryMapping
+    public List<ChambreDTO> searchAvailableRooms(@Argument TypeChambre type, @Argument String dateDebut,
+            @Argument String dateFin, @Argument Double maxPrix) {
+        log.info("GraphQL: Searching {} rooms free from {} to {}", type, dateDebut, dateFin);
+        return chambreService.searchAvailableRooms(type, LocalDate.parse(dateDebut), LocalDate.parse(dateFin),
+                maxPrix != null ? BigDecimal.valueOf(maxPrix) : null);
+    }
+
+    // ==================== FIELDS ====================
+
+    @BatchMapping(typeName = "Reservation")
+    public List<ClientDTO> client(List<ReservationDTO> reservations) {
+        Set<Long> ids = reservations.stream()
+                .map(ReservationDTO::getClient)
+                .filter(ClientDTO::isReference)
+                .map(ClientDTO::getId)
+                .collect(Collectors.toSet());
+        Map<Long, ClientDTO> loaded = ids.isEmpty() ? Map.of()
+                : referenceDataService.getClientsByIds(ids).stream()
+                        .collect(Collectors.toMap(ClientDTO::getId, Function.identity()));
+        return reservations.stream()
+                .map(ReservationDTO::getClient)
+                .map(client -> client.isReference() ? loaded.get(client.getId()) : client)
+                .collect(Collectors.toList());
+    }
+
+    @BatchMapping(typeName = "Reservation")
+    public List<ChambreDTO> chambre(List<ReservationDTO> reservations) {
+        Set<Long> ids = reservations.stream()
+                .map(ReservationDTO::getChambre)
+                .filter(ChambreDTO::isReference)
+                .map(ChambreDTO::getId)
+                .collect(Collectors.toSet());
+        Map<Long, ChambreDTO> loaded = ids.isEmpty() ? Map.of()
+                : referenceDataService.getChambresByIds(ids).stream()
+                        .collect(Collectors.toMap(ChambreDTO::getId, Function.identity()));
+        return reservations.stream()
+                .map(ReservationDTO::getChambre)
+                .map(chambre -> chambre.isReference() ? loaded.get(chambre.getId()) : chambre)
+                .collect(Collectors.toList());
     }
 
     // ==================== MUTATIONS ====================
@@ -54,10 +143,11 @@ public class ReservationGraphQLController {
     }
 
     @MutationMapping
-    public ReservationDTO updateReservation(@Argument Long id, @Argument ReservationInput input) {
+    public ReservationDTO updateReservation(@Argument Long id, @Argument ReservationInput input,
+            @Argument Long expectedVersion) {
         log.info("GraphQL: Updating reservation with id: {}", id);
         ReservationRequestDTO request = convertInputToRequest(input);
-        return reservationService.updateReservation(id, request);
+        return reservationService.updateReservation(id, request, expectedVersion);
     }
 
     @MutationMapping
@@ -66,6 +156,64 @@ public class ReservationGraphQLController {
         return reservationService.deleteReservation(id);
     }
 
+    // ==================== SUBSCRIPTIONS ====================
+
+    /**
+     * Events are emitted as the WebSocket session requests them; a
+     * subscriber waiting for changes holds no thread
+     */
+    @SubscriptionMapping
+    public Flux<ReservationEvent> reservationChanged(@Argument Long chambreId, @Argument Long clientId,
+            @Argument Long afterOffset) {
+        log.info("GraphQL: Subscribing to reservation changes for room {} and client {}", chambreId, clientId);
+        return Flux.create(sink -> {
+            FeedSubscription subscription = changeFeed.subscribe(chambreId, clientId, afterOffset,
+                    new ReservationEventSink() {
+                        @Override
+                        public boolean isReady() {
+                            return !sink.isCancelled() && sink.requestedFromDownstream() > 0;
+                        }
+
+                        @Override
+                        public void onEvent(ReservationEvent event) {
+                            sink.next(event);
+                        }
+
+                        @Override
+                        public void onError(FeedException error) {
+                            sink.error(error);
+                        }
+                    });
+            sink.onDispose(subscription::close);
+            sink.onRequest(n -> subscription.signal());
+        });
+    }
+
+    /**
+     * A subscription that cannot be served from the change feed, so the
+     * client knows to reload and resubscribe
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleFeedException(FeedException ex) {
+        return GraphqlErrorBuilder.newError()
+                .errorType(ErrorType.BAD_REQUEST)
+                .message(ex.getMessage())
+                .build();
+    }
+
+    /**
+     * A call shed by admission control, with the seconds to wait before
+     * retrying in the retryAfter extension
+     */
+    @GraphQlExceptionHandler
+    public GraphQLError handleOverloadedException(OverloadedException ex) {
+        return GraphqlErrorBuilder.newError()
+                .errorType(ex.isRateLimited() ? AdmissionErrorType.RATE_LIMITED : AdmissionErrorType.OVERLOADED)
+                .message(ex.getMessage())
+                .extensions(Map.of("retryAfter", ex.getRetryAfterSeconds()))
+                .build();
+    }
+
     /**
      * Convert GraphQL input to service request DTO
      */
@@ -78,4 +226,38 @@ public class ReservationGraphQLController {
                 .preferences(input.getPreferences())
                 .build();
     }
+
+    /**
+     * Convert a keyset page to a Relay connection
+     */
+    private ReservationConnection convertPageToConnection(ReservationPage page, boolean hasPrevious) {
+        List<ReservationEdge> edges = page.getItems().stream()
+                .map(reservation -> new ReservationEdge(encodeCursor(reservation.getId()), reservation))
+                .collect(Collectors.toList());
+        PageInfo pageInfo = new PageInfo(
+                page.isHasNext(),
+                hasPrevious,
+                edges.isEmpty() ? null : edges.get(0).getCursor(),
+                edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor());
+        return new ReservationConnection(edges, pageInfo);
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return Long.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor: " + cursor);
+        }
+    }
 }
@@ -1,15 +1,39 @@
 package com.hotel.grpc;
 
+import com.hotel.admission.AdmissionControl;
+import com.hotel.admission.AdmittedCall;
+import com.hotel.dto.ChambreDTO;
 import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationFilter;
+import com.hotel.dto.ReservationPage;
 import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.entity.TypeChambre;
+import com.hotel.exception.BusinessException;
+import com.hotel.exception.OverloadedException;
+import com.hotel.exception.VersionConflictException;
+import com.hotel.feed.FeedException;
+import com.hotel.feed.FeedSubscription;
+import com.hotel.feed.ReservationChangeFeed;
+import com.hotel.feed.ReservationEvent;
+import com.hotel.feed.ReservationEventSink;
 import com.hotel.grpc.generated.*;
+import com.hotel.service.ChambreService;
 import com.hotel.service.ReservationService;
+import io.grpc.Metadata;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * gRPC Service implementation for Reservation operations.
@@ -21,7 +45,18 @@ import java.time.LocalDate;
 @Slf4j
 public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.ReservationGrpcServiceImplBase {
 
+    // Results of a bulk create are ~13 bytes each, so this many stay well under
+    // the 4 MB default inbound message limit of gRPC clients
+    static final int MAX_BULK_ITEMS = 200_000;
+
+    // Read by gRPC retry policies as the delay before the next attempt
+    private static final Metadata.Key<String> RETRY_PUSHBACK =
+            Metadata.Key.of("grpc-retry-pushback-ms", Metadata.ASCII_STRING_MARSHALLER);
+
     private final ReservationService reservationService;
+    private final ChambreService chambreService;
+    private final ReservationChangeFeed changeFeed;
+    private final ObjectProvider<AdmissionControl> admissionControl;
 
     @Override
     public void createReservation(CreateReservationRequest request,
@@ -29,15 +64,7 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
         log.info("gRPC: Creating reservation");
 
         try {
-            ReservationRequestDTO requestDTO = ReservationRequestDTO.builder()
-                    .clientId(request.getClientId())
-                    .chambreId(request.getChambreId())
-                    .dateDebut(LocalDate.parse(request.getDateDebut()))
-                    .dateFin(LocalDate.parse(request.getDateFin()))
-                    .preferences(request.getPreferences())
-                    .build();
-
-            ReservationDTO result = reservationService.createReservation(requestDTO);
+            ReservationDTO result = reservationService.createReservation(convertToRequestDTO(request));
 
             ReservationResponse response = ReservationResponse.newBuilder()
                     .setReservation(convertToProto(result))
@@ -45,6 +72,9 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
+        } catch (OverloadedException e) {
+            log.debug("gRPC Shed creating reservation: {}", e.getMessage());
+            responseObserver.onError(overloaded(e));
         } catch (Exception e) {
             log.error("gRPC Error creating reservation: {}", e.getMessage());
             responseObserver.onError(io.grpc.Status.INTERNAL
@@ -67,6 +97,9 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
+        } catch (OverloadedException e) {
+            log.debug("gRPC Shed fetching reservation: {}", e.getMessage());
+            responseObserver.onError(overloaded(e));
         } catch (Exception e) {
             log.error("gRPC Error fetching reservation: {}", e.getMessage());
             responseObserver.onError(io.grpc.Status.NOT_FOUND
@@ -89,7 +122,8 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
                     .preferences(request.getPreferences())
                     .build();
 
-            ReservationDTO result = reservationService.updateReservation(request.getId(), requestDTO);
+            ReservationDTO result = reservationService.updateReservation(request.getId(), requestDTO,
+                    request.hasExpectedVersion() ? request.getExpectedVersion() : null);
 
             ReservationResponse response = ReservationResponse.newBuilder()
                     .setReservation(convertToProto(result))
@@ -97,6 +131,19 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
+        } catch (VersionConflictException e) {
+            log.warn("gRPC Version conflict updating reservation: {}", e.getMessage());
+            responseObserver.onError(io.grpc.Status.FAILED_PRECONDITION
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("gRPC Concurrent update of reservation: {}", request.getId());
+            responseObserver.onError(io.grpc.Status.ABORTED
+                    .withDescription("The reservation was modified concurrently, please retry")
+                    .asRuntimeException());
+        } catch (OverloadedException e) {
+            log.debug("gRPC Shed updating reservation: {}", e.getMessage());
+            responseObserver.onError(overloaded(e));
         } catch (Exception e) {
             log.error("gRPC Error updating reservation: {}", e.getMessage());
             responseObserver.onError(io.grpc.Status.INTERNAL
@@ -119,6 +166,14 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("gRPC Concurrent update of deleted reservation: {}", request.getId());
+            responseObserver.onError(io.grpc.Status.ABORTED
+                    .withDescription("The reservation was modified concurrently, please retry")
+                    .asRuntimeException());
+        } catch (OverloadedException e) {
+            log.debug("gRPC Shed deleting reservation: {}", e.getMessage());
+            responseObserver.onError(overloaded(e));
         } catch (Exception e) {
             log.error("gRPC Error deleting reservation: {}", e.getMessage());
             responseObserver.onError(io.grpc.Status.NOT_FOUND
@@ -127,15 +182,324 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
         }
     }
 
+    @Override
+    public void listReservations(ListReservationsRequest request,
+            StreamObserver<ReservationProto> responseObserver) {
+        log.info("gRPC: Listing reservations");
+
+        ServerCallStreamObserver<ReservationProto> call = (ServerCallStreamObserver<ReservationProto>) responseObserver;
+        ReservationFilter filter;
+        try {
+            filter = ReservationFilter.builder()
+                    .clientId(request.getClientId() != 0 ? request.getClientId() : null)
+                    .chambreId(request.getChambreId() != 0 ? request.getChambreId() : null)
+                    .dateDebut(request.getDateDebut().isEmpty() ? null : LocalDate.parse(request.getDateDebut()))
+                    .dateFin(request.getDateFin().isEmpty() ? null : LocalDate.parse(request.getDateFin()))
+                    .build();
+            // Checked before streaming, so the client's mistake is not reported as a server failure
+            if (filter.getDateDebut() != null && filter.getDateFin() != null
+                    && filter.getDateDebut().isAfter(filter.getDateFin())) {
+                throw new BusinessException("Start date must be before end date");
+            }
+        } catch (Exception e) {
+            log.error("gRPC Error listing reservations: {}", e.getMessage());
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+            return;
+        }
+
+        // Pages are fetched only while the client keeps up, so a slow
+        // consumer never holds more than one page in memory
+        call.setOnReadyHandler(new ReservationPageStreamer(call, filter,
+                request.getAfterId() != 0 ? request.getAfterId() : null));
+    }
+
+    @Override
+    public void searchAvailableRooms(SearchAvailableRoomsRequest request,
+            StreamObserver<SearchAvailableRoomsResponse> responseObserver) {
+        log.info("gRPC: Searching rooms free from {} to {}", request.getDateDebut(), request.getDateFin());
+
+        try {
+            List<ChambreDTO> result = chambreService.searchAvailableRooms(
+                    request.hasType() ? TypeChambre.valueOf(request.getType().name()) : null,
+                    LocalDate.parse(request.getDateDebut()),
+                    LocalDate.parse(request.getDateFin()),
+                    request.getMaxPrix() > 0 ? BigDecimal.valueOf(request.getMaxPrix()) : null);
+
+            SearchAvailableRoomsResponse.Builder response = SearchAvailableRoomsResponse.newBuilder();
+            result.forEach(chambre -> response.addChambres(convertToProto(chambre)));
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            log.error("gRPC Error searching rooms: {}", e.getMessage());
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<CreateReservationRequest> bulkCreateReservations(
+            StreamObserver<BulkCreateReservationsResponse> responseObserver) {
+        log.info("gRPC: Bulk creating reservations");
+
+        ServerCallStreamObserver<BulkCreateReservationsResponse> call =
+                (ServerCallStreamObserver<BulkCreateReservationsResponse>) responseObserver;
+        // The stream counts once against the caller's rate, like a REST batch. Each item takes
+        // a concurrency slot while it is stored only, so an idle stream holds none
+        AdmissionControl admission = admissionControl.getIfAvailable();
+        if (admission != null) {
+            try {
+                admission.checkRate();
+            } catch (OverloadedException e) {
+                responseObserver.onError(overloaded(e));
+                return new StreamObserver<>() {
+                    @Override
+                    public void onNext(CreateReservationRequest request) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                };
+            }
+        }
+        // Pull one request at a time, only after the previous one is stored
+        call.disableAutoRequest();
+        call.request(1);
+
+        return new StreamObserver<>() {
+            private final BulkCreateReservationsResponse.Builder response = BulkCreateReservationsResponse.newBuilder();
+            private int index;
+            private boolean finished;
+
+            @Override
+            public void onNext(CreateReservationRequest request) {
+                if (finished) {
+                    return;
+                }
+                BulkCreateReservationResult.Builder result = BulkCreateReservationResult.newBuilder()
+                        .setIndex(index++);
+                if (admission != null) {
+                    try {
+                        admission.acquireSlot();
+                    } catch (OverloadedException e) {
+                        // Answer with the results so far; the client resends the rest later
+                        log.info("gRPC: Bulk create refused at item {}: {}", result.getIndex(), e.getMessage());
+                        response.addResults(result.setSuccess(false).setError(e.getMessage()));
+                        response.setFailed(response.getFailed() + 1);
+                        onCompleted();
+                        return;
+                    }
+                }
+                long start = System.nanoTime();
+                Exception error = null;
+                try (AdmittedCall.Scope ignored = AdmittedCall.enter()) {
+                    ReservationDTO created = reservationService.createReservation(convertToRequestDTO(request));
+                    result.setSuccess(true).setId(created.getId());
+                    response.setCreated(response.getCreated() + 1);
+                } catch (Exception e) {
+                    error = e;
+                    log.debug("gRPC Bulk create item {} failed: {}", result.getIndex(), e.getMessage());
+                    result.setSuccess(false).setError(String.valueOf(e.getMessage()));
+                    response.setFailed(response.getFailed() + 1);
+                } finally {
+                    if (admission != null) {
+                        admission.release(System.nanoTime() - start, error, true);
+                    }
+                }
+                response.addResults(result);
+                if (index == MAX_BULK_ITEMS) {
+                    // Answer now rather than with a response the client cannot read;
+                    // it sends the items past the last result in another stream
+                    log.info("gRPC: Bulk create stopped at {} items", MAX_BULK_ITEMS);
+                    onCompleted();
+                    return;
+                }
+                call.request(1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("gRPC Bulk create cancelled after {} items: {}", index, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                log.info("gRPC: Bulk created {} reservations, {} failed", response.getCreated(), response.getFailed());
+                responseObserver.onNext(response.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void watchReservations(WatchReservationsRequest request,
+            StreamObserver<ReservationEventProto> responseObserver) {
+        log.info("gRPC: Watching reservation changes");
+
+        ServerCallStreamObserver<ReservationEventProto> call =
+                (ServerCallStreamObserver<ReservationEventProto>) responseObserver;
+        FeedSubscription subscription;
+        try {
+            subscription = changeFeed.subscribe(
+                    request.getChambreId() != 0 ? request.getChambreId() : null,
+                    request.getClientId() != 0 ? request.getClientId() : null,
+                    request.hasAfterOffset() ? request.getAfterOffset() : null,
+                    new ReservationEventSink() {
+                        @Override
+                        public boolean isReady() {
+                            return call.isReady() && !call.isCancelled();
+                        }
+
+                        @Override
+                        public void onEvent(ReservationEvent event) {
+                            call.onNext(convertToProto(event));
+                        }
+
+                        @Override
+                        public void onError(FeedException error) {
+                            call.onError(io.grpc.Status.OUT_OF_RANGE
+                                    .withDescription(error.getMessage())
+                                    .asRuntimeException());
+                        }
+                    });
+        } catch (FeedException e) {
+            responseObserver.onError(io.grpc.Status.OUT_OF_RANGE
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+            return;
+        }
+
+        // Events are sent only while the client keeps up; a watcher waiting
+        // for changes holds no thread
+        call.setOnCancelHandler(subscription::close);
+        call.setOnReadyHandler(subscription::signal);
+    }
+
+    /**
+     * Streams filtered reservations page by page, driven by the call's
+     * readiness. gRPC runs the handler again each time the transport can
+     * accept more messages.
+     */
+    private final class ReservationPageStreamer implements Runnable {
+
+        private final ServerCallStreamObserver<ReservationProto> call;
+        private final ReservationFilter filter;
+        private Iterator<ReservationDTO> buffered = Collections.emptyIterator();
+        private Long after;
+        private boolean lastPage;
+        private boolean done;
+
+        ReservationPageStreamer(ServerCallStreamObserver<ReservationProto> call, ReservationFilter filter, Long after) {
+            this.call = call;
+            this.filter = filter;
+            this.after = after;
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                return;
+            }
+            try {
+                while (call.isReady() && !call.isCancelled()) {
+                    if (buffered.hasNext()) {
+                        call.onNext(convertToProto(buffered.next()));
+                    } else if (lastPage) {
+                        done = true;
+                        call.onCompleted();
+                        return;
+                    } else {
+                        ReservationPage page = reservationService.searchReservations(filter, after, Integer.MAX_VALUE);
+                        buffered = page.getItems().iterator();
+                        after = page.getNextAfter();
+                        lastPage = !page.isHasNext();
+                    }
+                }
+                done = call.isCancelled();
+            } catch (OverloadedException e) {
+                log.debug("gRPC Shed listing reservations: {}", e.getMessage());
+                done = true;
+                call.onError(overloaded(e));
+            } catch (BusinessException e) {
+                log.debug("gRPC Invalid listing of reservations: {}", e.getMessage());
+                done = true;
+                call.onError(io.grpc.Status.INVALID_ARGUMENT
+                        .withDescription(e.getMessage())
+                        .asRuntimeException());
+            } catch (Exception e) {
+                log.error("gRPC Error listing reservations: {}", e.getMessage());
+                done = true;
+                call.onError(io.grpc.Status.INTERNAL
+                        .withDescription(e.getMessage())
+                        .asRuntimeException());
+            }
+        }
+    }
+
+    /**
+     * RESOURCE_EXHAUSTED for a call shed by admission control, with its retry delay
+     */
+    private static StatusRuntimeException overloaded(OverloadedException e) {
+        Metadata trailers = new Metadata();
+        trailers.put(RETRY_PUSHBACK, String.valueOf(e.getRetryAfter().toMillis()));
+        return io.grpc.Status.RESOURCE_EXHAUSTED
+                .withDescription(e.getMessage())
+                .asRuntimeException(trailers);
+    }
+
+    /**
+     * Convert a create request message to the service request DTO
+     */
+    private ReservationRequestDTO convertToRequestDTO(CreateReservationRequest request) {
+        return ReservationRequestDTO.builder()
+                .clientId(request.getClientId())
+                .chambreId(request.getChambreId())
+                .dateDebut(LocalDate.parse(request.getDateDebut()))
+                .dateFin(LocalDate.parse(request.getDateFin()))
+                .preferences(request.getPreferences())
+                .build();
+    }
+
+    /**
+     * Convert a change feed event to its Protocol Buffer message
+     */
+    private ReservationEventProto convertToProto(ReservationEvent event) {
+        ReservationEventProto.Builder builder = ReservationEventProto.newBuilder()
+                .setOffset(event.offset())
+                .setType(ReservationChangeType.valueOf(event.type().name()))
+                .setReservationId(event.reservationId())
+                .setChambreId(event.chambreId())
+                .setClientId(event.clientId());
+        if (event.reservation() != null) {
+            builder.setReservation(convertToProto(event.reservation()));
+        }
+        return builder.build();
+    }
+
     /**
      * Convert ReservationDTO to Protocol Buffer message
      */
-    private ReservationProto convertToProto(ReservationDTO dto) {
+    public static ReservationProto convertToProto(ReservationDTO dto) {
         ReservationProto.Builder builder = ReservationProto.newBuilder()
                 .setId(dto.getId())
                 .setDateDebut(dto.getDateDebut().toString())
                 .setDateFin(dto.getDateFin().toString());
 
+        if (dto.getVersion() != null) {
+            builder.setVersion(dto.getVersion());
+        }
+
         if (dto.getPreferences() != null) {
             builder.setPreferences(dto.getPreferences());
         }
@@ -151,18 +515,25 @@ public class ReservationGrpcServiceImpl extends ReservationGrpcServiceGrpc.Reser
         }
 
         if (dto.getChambre() != null) {
-            ChambreType chambreType = dto.getChambre().getType().name().equals("SIMPLE")
-                    ? ChambreType.SIMPLE
-                    : ChambreType.DOUBLE;
-
-            builder.setChambre(ChambreProto.newBuilder()
-                    .setId(dto.getChambre().getId())
-                    .setType(chambreType)
-                    .setPrix(dto.getChambre().getPrix().doubleValue())
-                    .setDisponible(dto.getChambre().getDisponible())
-                    .build());
+            builder.setChambre(convertToProto(dto.getChambre()));
         }
 
         return builder.build();
     }
+
+    /**
+     * Convert ChambreDTO to Protocol Buffer message
+     */
+    static ChambreProto convertToProto(ChambreDTO dto) {
+        ChambreType chambreType = dto.getType().name().equals("SIMPLE")
+                ? ChambreType.SIMPLE
+                : ChambreType.DOUBLE;
+
+        return ChambreProto.newBuilder()
+                .setId(dto.getId())
+                .setType(chambreType)
+                .setPrix(dto.getPrix().doubleValue())
+                .setDisponible(dto.getDisponible())
+                .build();
+    }
 }
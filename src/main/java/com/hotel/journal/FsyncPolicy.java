@@ -0,0 +1,26 @@
+package com.hotel.journal;
+
+/**
+ * When journal writes are forced to disk, trading write latency for the
+ * window of acknowledged changes a power loss can take away
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every change is forced before the request returns. Concurrent writers
+     * share one force (group commit), so the cost per change drops under load.
+     */
+    ALWAYS,
+
+    /**
+     * Changes are forced in the background every fsync interval; a power loss
+     * loses at most that window. A process crash loses nothing, as the mapped
+     * pages belong to the OS.
+     */
+    INTERVAL,
+
+    /**
+     * Forcing is left to the OS, apart from segment rollover and shutdown
+     */
+    NEVER
+}
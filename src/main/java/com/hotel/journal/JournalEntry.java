@@ -0,0 +1,88 @@
+package com.hotel.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * A reservation change as recorded in the journal. Upserts carry the full
+ * reservation state, so replaying an entry twice has no further effect.
+ * The version comes last, so upserts recorded before it existed still read,
+ * as version 0.
+ */
+public record JournalEntry(Type type, long reservationId, long clientId, long chambreId,
+        LocalDate dateDebut, LocalDate dateFin, String preferences, long version) {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    public static JournalEntry upsert(long reservationId, long clientId, long chambreId,
+            LocalDate dateDebut, LocalDate dateFin, String preferences, long version) {
+        return new JournalEntry(Type.UPSERT, reservationId, clientId, chambreId, dateDebut, dateFin, preferences,
+                version);
+    }
+
+    public static JournalEntry delete(long reservationId) {
+        return new JournalEntry(Type.DELETE, reservationId, 0, 0, null, null, null, 0);
+    }
+
+    /**
+     * Size of the encoded entry in bytes
+     */
+    int encodedSize() {
+        if (type == Type.DELETE) {
+            return 1 + 8;
+        }
+        int preferencesSize = preferences == null ? 0 : preferencesBytes().length;
+        return 1 + 8 + 8 + 8 + 4 + 4 + 2 + preferencesSize + 8;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(reservationId);
+        if (type == Type.DELETE) {
+            return;
+        }
+        buffer.putLong(clientId);
+        buffer.putLong(chambreId);
+        buffer.putInt(Math.toIntExact(dateDebut.toEpochDay()));
+        buffer.putInt(Math.toIntExact(dateFin.toEpochDay()));
+        if (preferences == null) {
+            buffer.putShort((short) -1);
+        } else {
+            byte[] bytes = preferencesBytes();
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new JournalException("Preferences too long to journal: " + bytes.length + " bytes");
+            }
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.putLong(version);
+    }
+
+    static JournalEntry readFrom(ByteBuffer buffer) {
+        Type type = Type.values()[buffer.get()];
+        long reservationId = buffer.getLong();
+        if (type == Type.DELETE) {
+            return delete(reservationId);
+        }
+        long clientId = buffer.getLong();
+        long chambreId = buffer.getLong();
+        LocalDate dateDebut = LocalDate.ofEpochDay(buffer.getInt());
+        LocalDate dateFin = LocalDate.ofEpochDay(buffer.getInt());
+        short preferencesSize = buffer.getShort();
+        String preferences = null;
+        if (preferencesSize >= 0) {
+            byte[] bytes = new byte[preferencesSize];
+            buffer.get(bytes);
+            preferences = new String(bytes, StandardCharsets.UTF_8);
+        }
+        long version = buffer.remaining() >= 8 ? buffer.getLong() : 0;
+        return upsert(reservationId, clientId, chambreId, dateDebut, dateFin, preferences, version);
+    }
+
+    private byte[] preferencesBytes() {
+        return preferences.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotel.journal;
+
+/**
+ * Failure to write, read or recover the reservation journal
+ */
+public class JournalException extends RuntimeException {
+
+    public JournalException(String message) {
+        super(message);
+    }
+
+    public JournalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hotel.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rebuilds the reservation state from a journal directory: the latest
+ * snapshot, then the journal records after it. Records a snapshot may
+ * already reflect are applied again, which is harmless as entries are
+ * idempotent.
+ */
+public final class JournalReplayer {
+
+    private JournalReplayer() {
+    }
+
+    public static Replay replay(Path directory) throws IOException {
+        Map<Long, JournalEntry> reservations = new HashMap<>();
+        Optional<SnapshotFile.Snapshot> snapshot = SnapshotFile.latest(directory);
+        long snapshotSeq = 0;
+        if (snapshot.isPresent()) {
+            SnapshotFile.read(snapshot.get(), entry -> reservations.put(entry.reservationId(), entry));
+            snapshotSeq = snapshot.get().seq();
+        }
+        long snapshotEntries = reservations.size();
+
+        List<MappedJournal.Segment> segments = MappedJournal.segments(directory);
+        long lastSeq = snapshotSeq;
+        long events = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            MappedJournal.Segment segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            // Skip segments wholly covered by the snapshot
+            if (!last && segments.get(i + 1).firstSeq() - 1 <= snapshotSeq) {
+                continue;
+            }
+            if (segment.firstSeq() > lastSeq + 1) {
+                throw new JournalException("Journal gap: expected record " + (lastSeq + 1)
+                        + " but " + segment.path().getFileName() + " starts at " + segment.firstSeq());
+            }
+            long fromSeq = snapshotSeq;
+            long[] applied = {0};
+            MappedJournal.ScanResult result;
+            try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                result = MappedJournal.scan(buffer, segment.firstSeq(), (entry, seq) -> {
+                    if (seq > fromSeq) {
+                        apply(reservations, entry);
+                        applied[0]++;
+                    }
+                });
+            }
+            events += applied[0];
+            lastSeq = Math.max(lastSeq, result.lastSeq());
+            if (!last && result.lastSeq() != segments.get(i + 1).firstSeq() - 1) {
+                throw new JournalException("Journal segment " + segment.path().getFileName()
+                        + " is corrupt after record " + result.lastSeq());
+            }
+        }
+        return new Replay(reservations, snapshotSeq, snapshotEntries, lastSeq, events);
+    }
+
+    private static void apply(Map<Long, JournalEntry> reservations, JournalEntry entry) {
+        if (entry.type() == JournalEntry.Type.DELETE) {
+            reservations.remove(entry.reservationId());
+        } else {
+            reservations.put(entry.reservationId(), entry);
+        }
+    }
+
+    /**
+     * Recovered state
+     *
+     * @param reservations   live reservations by ID
+     * @param snapshotSeq    sequence number of the snapshot used, 0 if none
+     * @param snapshotEntries reservations read from the snapshot
+     * @param lastSeq        last valid journal record
+     * @param events         journal records applied after the snapshot
+     */
+    public record Replay(Map<Long, JournalEntry> reservations, long snapshotSeq, long snapshotEntries,
+            long lastSeq, long events) {
+    }
+}
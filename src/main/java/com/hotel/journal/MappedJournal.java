@@ -0,0 +1,276 @@
+package com.hotel.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal stored in fixed-size memory-mapped segment files.
+ * <p>
+ * Each record is framed as [length int][crc32c int][seq long][entry], where
+ * the CRC covers seq and entry. Sequence numbers are contiguous across
+ * segments, and a segment is named after its first one. Unused space is
+ * zero-filled, so reading stops at the first zero length, bad checksum or
+ * sequence gap, which is how a torn tail write is detected and dropped.
+ */
+public final class MappedJournal implements Closeable {
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final int MIN_SEGMENT_SIZE = 1 << 20;
+    private static final int FRAME_HEADER = 4 + 4;
+    private static final int SEQ_SIZE = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Object flushLock = new Object();
+    private final AtomicLong durableSeq = new AtomicLong();
+
+    private FileChannel channel;
+    private MappedByteBuffer active;
+    private int position;
+    private long lastSeq;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    private MappedJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Open the journal in a directory, continuing after the last valid record
+     * of the newest segment
+     */
+    public static MappedJournal open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        Files.createDirectories(directory);
+        MappedJournal journal = new MappedJournal(directory, segmentSize);
+        List<Segment> segments = segments(directory);
+        if (segments.isEmpty()) {
+            long snapshotSeq = SnapshotFile.latest(directory).map(SnapshotFile.Snapshot::seq).orElse(0L);
+            journal.startSegment(snapshotSeq + 1);
+        } else {
+            journal.resume(segments.get(segments.size() - 1));
+        }
+        return journal;
+    }
+
+    /**
+     * Append an entry. It is visible to readers of the files at once, but
+     * only durable after a {@link #sync(long)} covering its sequence number.
+     *
+     * @return the sequence number of the entry
+     */
+    public synchronized long append(JournalEntry entry) {
+        int recordSize = FRAME_HEADER + SEQ_SIZE + entry.encodedSize();
+        if (position + recordSize > active.capacity()) {
+            roll();
+        }
+        if (scratch.capacity() < recordSize) {
+            scratch = ByteBuffer.allocate(recordSize);
+        }
+        long seq = lastSeq + 1;
+        ByteBuffer record = scratch.clear();
+        record.position(FRAME_HEADER);
+        record.putLong(seq);
+        entry.writeTo(record);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), FRAME_HEADER, recordSize - FRAME_HEADER);
+        record.putInt(0, recordSize - FRAME_HEADER);
+        record.putInt(4, (int) crc.getValue());
+        active.put(position, record.array(), 0, recordSize);
+        position += recordSize;
+        lastSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Force every record up to seq to disk. A caller arriving while another
+     * force is running waits for it, then usually finds its record already
+     * covered, so concurrent writers share one force (group commit).
+     */
+    public void sync(long seq) {
+        if (durableSeq.get() >= seq) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durableSeq.get() >= seq) {
+                return;
+            }
+            long target;
+            MappedByteBuffer buffer;
+            synchronized (this) {
+                target = lastSeq;
+                buffer = active;
+            }
+            // Segments rolled over in the meantime were forced by roll()
+            force(buffer);
+            durableSeq.accumulateAndGet(target, Math::max);
+        }
+    }
+
+    /**
+     * Force every record appended so far to disk
+     */
+    public void sync() {
+        sync(lastSeq());
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Delete the segments holding only records up to seq, typically once a
+     * snapshot covers them. The active segment is always kept.
+     */
+    public void deleteSegmentsThrough(long seq) throws IOException {
+        List<Segment> segments = segments(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (segments.get(i + 1).firstSeq() - 1 > seq) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i).path());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            force(active);
+            durableSeq.accumulateAndGet(lastSeq, Math::max);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Segments of a journal directory ordered by first sequence number
+     */
+    static List<Segment> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(new Segment(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), path));
+                }
+            });
+        }
+        segments.sort(Comparator.comparingLong(Segment::firstSeq));
+        return segments;
+    }
+
+    /**
+     * Read the valid records of a segment in order
+     *
+     * @param visitor receives each entry with its sequence number, or null to only validate
+     * @return where the valid records end
+     */
+    static ScanResult scan(ByteBuffer segment, long firstSeq, ObjLongConsumer<JournalEntry> visitor) {
+        int position = 0;
+        long expectedSeq = firstSeq;
+        CRC32C crc = new CRC32C();
+        while (position + FRAME_HEADER + SEQ_SIZE <= segment.capacity()) {
+            int length = segment.getInt(position);
+            if (length < SEQ_SIZE || position + FRAME_HEADER + length > segment.capacity()) {
+                break;
+            }
+            ByteBuffer body = segment.slice(position + FRAME_HEADER, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != segment.getInt(position + 4) || body.getLong() != expectedSeq) {
+                break;
+            }
+            if (visitor != null) {
+                visitor.accept(JournalEntry.readFrom(body), expectedSeq);
+            }
+            position += FRAME_HEADER + length;
+            expectedSeq++;
+        }
+        return new ScanResult(position, expectedSeq - 1);
+    }
+
+    static Path segmentPath(Path directory, long firstSeq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+    }
+
+    private void resume(Segment segment) throws IOException {
+        channel = FileChannel.open(segment.path(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        ScanResult result = scan(active, segment.firstSeq(), null);
+        position = result.end();
+        lastSeq = result.lastSeq();
+        durableSeq.set(lastSeq);
+        // Wipe a torn tail so it cannot be mistaken for records written later
+        for (int i = position; i < active.capacity(); i++) {
+            if (active.get(i) != 0) {
+                active.put(i, new byte[active.capacity() - position]);
+                force(active);
+                break;
+            }
+        }
+    }
+
+    private void roll() {
+        try {
+            force(active);
+            durableSeq.accumulateAndGet(lastSeq, Math::max);
+            channel.close();
+            startSegment(lastSeq + 1);
+        } catch (IOException e) {
+            throw new JournalException("Failed to roll journal segment", e);
+        }
+    }
+
+    private void startSegment(long firstSeq) throws IOException {
+        channel = FileChannel.open(segmentPath(directory, firstSeq),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        position = 0;
+        lastSeq = firstSeq - 1;
+        syncDirectory(directory);
+    }
+
+    private static void force(MappedByteBuffer buffer) {
+        try {
+            buffer.force();
+        } catch (UncheckedIOException e) {
+            throw new JournalException("Failed to force journal to disk", e);
+        }
+    }
+
+    /**
+     * Make a created, renamed or deleted file in the directory durable
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    record Segment(long firstSeq, Path path) {
+    }
+
+    record ScanResult(int end, long lastSeq) {
+    }
+}
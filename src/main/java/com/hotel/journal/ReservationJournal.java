@@ -0,0 +1,224 @@
+package com.hotel.journal;
+
+import com.hotel.entity.Reservation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable journal of committed reservation changes, for running on the
+ * in-memory database without losing bookings across restarts.
+ * <p>
+ * Changes are appended after their transaction commits, in per-room commit
+ * order as the room locks are still held, and forced according to the
+ * {@link FsyncPolicy}. Every snapshot-every changes, the reservations table
+ * is written to a snapshot and the journal segments it covers are deleted,
+ * which bounds both disk usage and recovery time. Disabled, every method is
+ * a no-op.
+ */
+@Component
+@Slf4j
+public class ReservationJournal {
+
+    private static final String SNAPSHOT_QUERY =
+            "SELECT id, client_id, chambre_id, date_debut, date_fin, preferences, version FROM reservations";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration fsyncInterval;
+    private final long snapshotEvery;
+
+    private final AtomicLong changesSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private MappedJournal journal;
+    private ScheduledExecutorService executor;
+
+    public ReservationJournal(JdbcTemplate jdbcTemplate,
+            @Value("${hotel.journal.enabled:false}") boolean enabled,
+            @Value("${hotel.journal.directory:data/journal}") Path directory,
+            @Value("${hotel.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${hotel.journal.fsync:always}") FsyncPolicy fsyncPolicy,
+            @Value("${hotel.journal.fsync-interval:100ms}") Duration fsyncInterval,
+            @Value("${hotel.journal.snapshot-every:1000000}") long snapshotEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = MappedJournal.open(directory, Math.toIntExact(segmentSize.toBytes()));
+        // Two threads, so a long snapshot never delays the interval fsync
+        executor = Executors.newScheduledThreadPool(2, daemonThreads());
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            long intervalMillis = fsyncInterval.toMillis();
+            executor.scheduleWithFixedDelay(this::syncQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        log.info("Reservation journal opened in {} at record {} (fsync {})",
+                directory.toAbsolutePath(), journal.lastSeq(), fsyncPolicy);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        log.info("Reservation journal closed at record {}", journal.lastSeq());
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Record the committed state of a created or updated reservation
+     */
+    public void recordSaved(Reservation reservation) {
+        if (journal != null) {
+            sync(journal.append(toEntry(reservation)), 1);
+        }
+    }
+
+    /**
+     * Record the committed state of reservations created together, forced once
+     */
+    public void recordSaved(Collection<Reservation> reservations) {
+        if (journal == null || reservations.isEmpty()) {
+            return;
+        }
+        long seq = 0;
+        for (Reservation reservation : reservations) {
+            seq = journal.append(toEntry(reservation));
+        }
+        sync(seq, reservations.size());
+    }
+
+    /**
+     * Record a committed deletion
+     */
+    public void recordDeleted(Long reservationId) {
+        if (journal != null) {
+            sync(journal.append(JournalEntry.delete(reservationId)), 1);
+        }
+    }
+
+    /**
+     * Count changes replayed at startup towards the next snapshot, so a long
+     * journal tail is compacted soon after recovery
+     */
+    void recovered(long replayedChanges) {
+        if (journal != null && changesSinceSnapshot.addAndGet(replayedChanges) >= snapshotEvery) {
+            scheduleSnapshot();
+        }
+    }
+
+    /**
+     * Write a snapshot of the reservations table, then drop what it covers.
+     * Rows committed after the snapshot sequence number may already show up;
+     * replaying their records over the snapshot yields the same state.
+     */
+    public void snapshot() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        long seq = journal.lastSeq();
+        SnapshotFile.Snapshot snapshot;
+        long count;
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(directory, seq)) {
+            jdbcTemplate.query(SNAPSHOT_QUERY, rs -> {
+                try {
+                    writer.write(JournalEntry.upsert(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                            rs.getObject(4, LocalDate.class), rs.getObject(5, LocalDate.class),
+                            rs.getString(6), rs.getLong(7)));
+                } catch (IOException e) {
+                    throw new JournalException("Failed to write snapshot", e);
+                }
+            });
+            count = writer.count();
+            snapshot = writer.commit();
+        }
+        journal.deleteSegmentsThrough(snapshot.seq());
+        SnapshotFile.deleteBefore(directory, snapshot.seq());
+        log.info("Journal snapshot at record {} written with {} reservations in {} ms",
+                seq, count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void sync(long seq, int changes) {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            journal.sync(seq);
+        }
+        if (changesSinceSnapshot.addAndGet(changes) >= snapshotEvery) {
+            scheduleSnapshot();
+        }
+    }
+
+    private void scheduleSnapshot() {
+        if (!snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        changesSinceSnapshot.set(0);
+        executor.execute(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                log.error("Journal snapshot failed, the journal keeps growing until the next one", e);
+            } finally {
+                snapshotRunning.set(false);
+            }
+        });
+    }
+
+    private void syncQuietly() {
+        try {
+            journal.sync();
+        } catch (RuntimeException e) {
+            log.error("Journal fsync failed", e);
+        }
+    }
+
+    private static JournalEntry toEntry(Reservation reservation) {
+        return JournalEntry.upsert(reservation.getId(), reservation.getClient().getId(),
+                reservation.getChambre().getId(), reservation.getDateDebut(), reservation.getDateFin(),
+                reservation.getPreferences(), reservation.getVersion());
+    }
+
+    private static CustomizableThreadFactory daemonThreads() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("journal-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,177 @@
+package com.hotel.journal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot of every reservation as of a journal sequence number.
+ * <p>
+ * Layout: [magic int][seq long], then [length int][entry] per reservation,
+ * a -1 length terminator and a crc32c long over everything before it. A
+ * snapshot is written to a temporary file, forced, then renamed into place,
+ * so a crash never leaves a partial one behind.
+ */
+public final class SnapshotFile {
+
+    static final String PREFIX = "snapshot-";
+    static final String SUFFIX = ".snapshot";
+    private static final int MAGIC = 0x484A5331; // "HJS1"
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * The snapshot with the highest sequence number, if any
+     */
+    public static Optional<Snapshot> latest(Path directory) throws IOException {
+        List<Snapshot> snapshots = list(directory);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    /**
+     * Read the entries of a snapshot, checking its checksum once they are consumed
+     */
+    public static void read(Snapshot snapshot, Consumer<JournalEntry> consumer) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream file = Files.newInputStream(snapshot.path());
+             CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, 1 << 16), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC || in.readLong() != snapshot.seq()) {
+                throw new JournalException("Invalid snapshot header in " + snapshot.path());
+            }
+            byte[] bytes = new byte[256];
+            int length;
+            while ((length = in.readInt()) >= 0) {
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                in.readFully(bytes, 0, length);
+                consumer.accept(JournalEntry.readFrom(ByteBuffer.wrap(bytes, 0, length)));
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new JournalException("Snapshot checksum mismatch in " + snapshot.path());
+            }
+        } catch (EOFException e) {
+            throw new JournalException("Truncated snapshot " + snapshot.path(), e);
+        }
+    }
+
+    /**
+     * Delete the snapshots older than seq
+     */
+    public static void deleteBefore(Path directory, long seq) throws IOException {
+        for (Snapshot snapshot : list(directory)) {
+            if (snapshot.seq() < seq) {
+                Files.deleteIfExists(snapshot.path());
+            }
+        }
+    }
+
+    private static List<Snapshot> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<Snapshot> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    snapshots.add(new Snapshot(Long.parseLong(
+                            name.substring(PREFIX.length(), name.length() - SUFFIX.length())), path));
+                }
+            });
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::seq));
+        return snapshots;
+    }
+
+    public record Snapshot(long seq, Path path) {
+    }
+
+    /**
+     * Writes a snapshot entry by entry; {@link #commit()} publishes it
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path directory;
+        private final long seq;
+        private final Path temporary;
+        private final FileOutputStream file;
+        private final CRC32C crc = new CRC32C();
+        private final DataOutputStream out;
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+        private long count;
+        private boolean committed;
+
+        public Writer(Path directory, long seq) throws IOException {
+            this.directory = directory;
+            this.seq = seq;
+            this.temporary = directory.resolve(String.format("%s%020d%s.tmp", PREFIX, seq, SUFFIX));
+            this.file = new FileOutputStream(temporary.toFile());
+            this.out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+            out.writeInt(MAGIC);
+            out.writeLong(seq);
+        }
+
+        public void write(JournalEntry entry) throws IOException {
+            int size = entry.encodedSize();
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(size);
+            }
+            buffer.clear();
+            entry.writeTo(buffer);
+            out.writeInt(size);
+            out.write(buffer.array(), 0, size);
+            count++;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Force the snapshot to disk and move it into place
+         */
+        public Snapshot commit() throws IOException {
+            out.writeInt(-1);
+            out.writeLong(crc.getValue());
+            out.flush();
+            file.getFD().sync();
+            out.close();
+            Path target = directory.resolve(String.format("%s%020d%s", PREFIX, seq, SUFFIX));
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            MappedJournal.syncDirectory(directory);
+            committed = true;
+            return new Snapshot(seq, target);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
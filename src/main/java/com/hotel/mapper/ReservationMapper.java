@@ -2,6 +2,7 @@ package com.hotel.mapper;
 
 import com.hotel.dto.*;
 import com.hotel.entity.*;
+import com.hotel.repository.ReservationView;
 import org.mapstruct.*;
 
 /**
@@ -25,6 +26,34 @@ public interface ReservationMapper {
     @Mapping(target = "chambre", source = "chambre")
     ReservationDTO toReservationDTO(Reservation reservation);
 
+    // Reservation read model mapping, nesting the client and chambre columns
+    @Mapping(target = "client.id", source = "clientId")
+    @Mapping(target = "client.nom", source = "clientNom")
+    @Mapping(target = "client.prenom", source = "clientPrenom")
+    @Mapping(target = "client.email", source = "clientEmail")
+    @Mapping(target = "client.telephone", source = "clientTelephone")
+    @Mapping(target = "chambre.id", source = "chambreId")
+    @Mapping(target = "chambre.type", source = "chambreType")
+    @Mapping(target = "chambre.prix", source = "chambrePrix")
+    @Mapping(target = "chambre.disponible", source = "chambreDisponible")
+    ReservationDTO toReservationDTO(ReservationView view);
+
+    // Reservation mapping keeping only the IDs of client and chambre, so lazy
+    // associations are not initialized
+    @Mapping(target = "client", source = "client", qualifiedByName = "clientRef")
+    @Mapping(target = "chambre", source = "chambre", qualifiedByName = "chambreRef")
+    ReservationDTO toReservationRefDTO(Reservation reservation);
+
+    @Named("clientRef")
+    default ClientDTO toClientRef(Client client) {
+        return client == null ? null : ClientDTO.builder().id(client.getId()).reference(true).build();
+    }
+
+    @Named("chambreRef")
+    default ChambreDTO toChambreRef(Chambre chambre) {
+        return chambre == null ? null : ChambreDTO.builder().id(chambre.getId()).reference(true).build();
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "client", ignore = true)
     @Mapping(target = "chambre", ignore = true)
@@ -0,0 +1,80 @@
+package com.hotel.metrics;
+
+import com.hotel.graphql.AdmissionErrorType;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records hotel.requests for GraphQL executions, named after the first
+ * top-level field (e.g. reservationById, createReservation)
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQLMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    private final RequestMetrics metrics;
+
+    @Override
+    public InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new RequestState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+            InstrumentationState state) {
+        RequestState request = (RequestState) state;
+        request.sample = metrics.start();
+        return SimpleInstrumentationContext.whenCompleted((result, error) ->
+                metrics.record(request.sample, ProtocolContext.GRAPHQL, request.operation, outcome(result, error)));
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        OperationDefinition definition = parameters.getExecutionContext().getOperationDefinition();
+        for (Selection<?> selection : definition.getSelectionSet().getSelections()) {
+            if (selection instanceof Field field) {
+                ((RequestState) state).operation = field.getName();
+                break;
+            }
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private static Outcome outcome(ExecutionResult result, Throwable error) {
+        if (error != null) {
+            return Outcome.SERVER_ERROR;
+        }
+        if (result.getErrors().isEmpty()) {
+            return Outcome.SUCCESS;
+        }
+        for (GraphQLError graphQLError : result.getErrors()) {
+            if (graphQLError.getErrorType() == ErrorType.INTERNAL_ERROR
+                    || graphQLError.getErrorType() == AdmissionErrorType.OVERLOADED) {
+                return Outcome.SERVER_ERROR;
+            }
+        }
+        return Outcome.CLIENT_ERROR;
+    }
+
+    private static final class RequestState implements InstrumentationState {
+
+        private Timer.Sample sample;
+        private String operation = RequestMetrics.UNKNOWN_OPERATION;
+    }
+}
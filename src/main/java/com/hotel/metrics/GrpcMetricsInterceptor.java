@@ -0,0 +1,89 @@
+package com.hotel.metrics;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+import java.beans.Introspector;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records hotel.requests for gRPC calls, from call start to close or cancel.
+ * Every listener callback runs in the gRPC protocol context, so streaming
+ * handlers driven by onReady are attributed too.
+ */
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class GrpcMetricsInterceptor implements ServerInterceptor {
+
+    private final RequestMetrics metrics;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        Timer.Sample sample = metrics.start();
+        String operation = Introspector.decapitalize(call.getMethodDescriptor().getBareMethodName());
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        ServerCall<ReqT, RespT> recordingCall = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                try {
+                    super.close(status, trailers);
+                } finally {
+                    if (recorded.compareAndSet(false, true)) {
+                        metrics.record(sample, ProtocolContext.GRPC, operation,
+                                Outcomes.forGrpcStatus(status.getCode()));
+                    }
+                }
+            }
+        };
+
+        ServerCall.Listener<ReqT> listener;
+        try (ProtocolContext.Scope ignored = ProtocolContext.enter(ProtocolContext.GRPC)) {
+            listener = next.startCall(recordingCall, headers);
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(ReqT message) {
+                try (ProtocolContext.Scope ignored = ProtocolContext.enter(ProtocolContext.GRPC)) {
+                    super.onMessage(message);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                try (ProtocolContext.Scope ignored = ProtocolContext.enter(ProtocolContext.GRPC)) {
+                    super.onHalfClose();
+                }
+            }
+
+            @Override
+            public void onReady() {
+                try (ProtocolContext.Scope ignored = ProtocolContext.enter(ProtocolContext.GRPC)) {
+                    super.onReady();
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                try (ProtocolContext.Scope ignored = ProtocolContext.enter(ProtocolContext.GRPC)) {
+                    super.onCancel();
+                } finally {
+                    if (recorded.compareAndSet(false, true)) {
+                        metrics.record(sample, ProtocolContext.GRPC, operation, Outcome.UNKNOWN);
+                    }
+                }
+            }
+        };
+    }
+}
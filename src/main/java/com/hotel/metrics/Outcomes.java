@@ -0,0 +1,47 @@
+package com.hotel.metrics;
+
+import com.hotel.exception.BusinessException;
+import com.hotel.exception.OverloadedException;
+import com.hotel.exception.ResourceNotFoundException;
+import io.grpc.Status;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+/**
+ * Maps failures of every protocol onto the outcome tag used by http.server.requests
+ */
+public final class Outcomes {
+
+    private Outcomes() {
+    }
+
+    /**
+     * Client errors are failures caused by the request (unknown IDs, business
+     * rule violations, invalid input, a caller over its rate limit); anything
+     * else is a server error
+     */
+    public static Outcome forException(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OverloadedException overloaded) {
+                return overloaded.isRateLimited() ? Outcome.CLIENT_ERROR : Outcome.SERVER_ERROR;
+            }
+            if (cause instanceof ResourceNotFoundException
+                    || cause instanceof BusinessException
+                    || cause instanceof ConstraintViolationException
+                    || cause instanceof IllegalArgumentException) {
+                return Outcome.CLIENT_ERROR;
+            }
+        }
+        return Outcome.SERVER_ERROR;
+    }
+
+    public static Outcome forGrpcStatus(Status.Code code) {
+        return switch (code) {
+            case OK -> Outcome.SUCCESS;
+            case CANCELLED -> Outcome.UNKNOWN;
+            case INVALID_ARGUMENT, NOT_FOUND, ALREADY_EXISTS, PERMISSION_DENIED, FAILED_PRECONDITION,
+                    OUT_OF_RANGE, UNAUTHENTICATED, RESOURCE_EXHAUSTED -> Outcome.CLIENT_ERROR;
+            default -> Outcome.SERVER_ERROR;
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.hotel.metrics;
+
+/**
+ * Protocol serving the current thread, so service-level metrics can be
+ * attributed to the adapter that called them
+ */
+public final class ProtocolContext {
+
+    public static final String REST = "rest";
+    public static final String SOAP = "soap";
+    public static final String GRAPHQL = "graphql";
+    public static final String GRPC = "grpc";
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ProtocolContext() {
+    }
+
+    public static String current() {
+        String protocol = CURRENT.get();
+        return protocol != null ? protocol : NONE;
+    }
+
+    /**
+     * Mark the current thread as serving the given protocol until the scope is closed
+     */
+    public static Scope enter(String protocol) {
+        String previous = CURRENT.get();
+        CURRENT.set(protocol);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
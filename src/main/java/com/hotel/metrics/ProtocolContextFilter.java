@@ -0,0 +1,28 @@
+package com.hotel.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sets the protocol context for an HTTP endpoint whose request metrics are
+ * recorded by the protocol stack itself (CXF for SOAP, GraphQL instrumentation)
+ */
+@RequiredArgsConstructor
+public class ProtocolContextFilter extends OncePerRequestFilter {
+
+    private final String protocol;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (ProtocolContext.Scope ignored = ProtocolContext.enter(protocol)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hotel.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the hotel.requests timer shared by all protocol adapters, tagged
+ * with protocol, operation and outcome. SLO buckets are configured under
+ * management.metrics.distribution.slo.hotel.requests.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMetrics {
+
+    public static final String REQUESTS = "hotel.requests";
+    public static final String UNKNOWN_OPERATION = "unknown";
+
+    private final MeterRegistry registry;
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void record(Timer.Sample sample, String protocol, String operation, Outcome outcome) {
+        sample.stop(Timer.builder(REQUESTS)
+                .description("Requests handled per protocol and operation")
+                .tag("protocol", protocol)
+                .tag("operation", operation)
+                .tag("outcome", outcome.name())
+                .register(registry));
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotel.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records hotel.requests for the REST API, named after the controller method.
+ * Streaming responses are recorded when the async request completes.
+ */
+@RequiredArgsConstructor
+public class RestMetricsFilter extends OncePerRequestFilter {
+
+    private final RequestMetrics metrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Timer.Sample sample = metrics.start();
+        boolean failed = true;
+        try (ProtocolContext.Scope ignored = ProtocolContext.enter(ProtocolContext.REST)) {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(sample, request, response));
+            } else {
+                record(sample, request, failed ? Outcome.SERVER_ERROR : Outcome.forStatus(response.getStatus()));
+            }
+        }
+    }
+
+    private void record(Timer.Sample sample, HttpServletRequest request, Outcome outcome) {
+        String operation = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+                ? handler.getMethod().getName()
+                : RequestMetrics.UNKNOWN_OPERATION;
+        metrics.record(sample, ProtocolContext.REST, operation, outcome);
+    }
+
+    @RequiredArgsConstructor
+    private final class CompletionListener implements AsyncListener {
+
+        private final Timer.Sample sample;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(sample, request, Outcome.forStatus(response.getStatus()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.hotel.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every service interface call as hotel.service, tagged with the calling
+ * protocol. Ordered outside everything but admission control
+ * (HIGHEST_PRECEDENCE), just before caching (HIGHEST_PRECEDENCE + 2 in
+ * CacheConfig), so cache hits and transaction commit are included while
+ * refused calls are not.
+ * With sharding, the per-shard calls are timed rather than the sharded
+ * front that fans them out.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String SERVICE = "hotel.service";
+
+    private final MeterRegistry registry;
+
+    @Around("execution(public * com.hotel.service.*Service.*(..)) && !within(com.hotel.sharding..*)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = Outcomes.forException(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(SERVICE)
+                    .description("Service calls per calling protocol")
+                    .tag("protocol", ProtocolContext.current())
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome.name())
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotel.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+/**
+ * CXF interceptors recording hotel.requests for SOAP operations: the timer
+ * starts when a message is received and stops once the response or fault
+ * has been written
+ */
+public final class SoapMetricsInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private static final String SAMPLE = SoapMetricsInterceptor.class.getName() + ".sample";
+
+    private final RequestMetrics metrics;
+    private final boolean inbound;
+
+    private SoapMetricsInterceptor(RequestMetrics metrics, String phase, boolean inbound) {
+        super(phase);
+        this.metrics = metrics;
+        this.inbound = inbound;
+    }
+
+    /**
+     * Interceptor for the in chain
+     */
+    public static SoapMetricsInterceptor start(RequestMetrics metrics) {
+        return new SoapMetricsInterceptor(metrics, Phase.RECEIVE, true);
+    }
+
+    /**
+     * Interceptor for the out and out fault chains
+     */
+    public static SoapMetricsInterceptor stop(RequestMetrics metrics) {
+        return new SoapMetricsInterceptor(metrics, Phase.SETUP_ENDING, false);
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Exchange exchange = message.getExchange();
+        if (inbound) {
+            exchange.put(SAMPLE, metrics.start());
+            return;
+        }
+        if (!(exchange.remove(SAMPLE) instanceof Timer.Sample sample)) {
+            return;
+        }
+        Exception fault = message.getContent(Exception.class);
+        Outcome outcome = fault == null ? Outcome.SUCCESS : Outcomes.forException(fault);
+        BindingOperationInfo operation = exchange.getBindingOperationInfo();
+        metrics.record(sample, ProtocolContext.SOAP,
+                operation != null ? operation.getName().getLocalPart() : RequestMetrics.UNKNOWN_OPERATION,
+                outcome);
+    }
+}
@@ -1,10 +1,15 @@
 package com.hotel.repository;
 
+import com.hotel.dto.ChambreDTO;
 import com.hotel.entity.Chambre;
 import com.hotel.entity.TypeChambre;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -15,4 +20,29 @@ public interface ChambreRepository extends JpaRepository<Chambre, Long> {
     List<Chambre> findByDisponibleTrue();
 
     List<Chambre> findByType(TypeChambre type);
+
+    // Bookable rooms (disponible) matching the optional type and price ceiling,
+    // read straight into DTOs so large catalogs do not fill the persistence context
+    @Query("SELECT new com.hotel.dto.ChambreDTO(c.id, c.type, c.prix, c.disponible) FROM Chambre c " +
+            "WHERE c.disponible = true " +
+            "AND (:type IS NULL OR c.type = :type) " +
+            "AND (:maxPrix IS NULL OR c.prix <= :maxPrix) " +
+            "ORDER BY c.id")
+    List<ChambreDTO> findBookableRooms(
+            @Param("type") TypeChambre type,
+            @Param("maxPrix") BigDecimal maxPrix);
+
+    // Same rooms, minus those with a reservation overlapping the dates (bounds inclusive)
+    @Query("SELECT new com.hotel.dto.ChambreDTO(c.id, c.type, c.prix, c.disponible) FROM Chambre c " +
+            "WHERE c.disponible = true " +
+            "AND (:type IS NULL OR c.type = :type) " +
+            "AND (:maxPrix IS NULL OR c.prix <= :maxPrix) " +
+            "AND NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.chambre = c " +
+            "AND r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut) " +
+            "ORDER BY c.id")
+    List<ChambreDTO> findAvailableRooms(
+            @Param("type") TypeChambre type,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin,
+            @Param("maxPrix") BigDecimal maxPrix);
 }
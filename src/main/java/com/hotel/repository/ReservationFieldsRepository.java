@@ -0,0 +1,23 @@
+package com.hotel.repository;
+
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFilter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reservation reads narrowed to a sparse fieldset
+ */
+public interface ReservationFieldsRepository {
+
+    /**
+     * Reservations matching a filter after an ID, ordered by ID, selecting
+     * only the columns of the given fields. Client and chambre are joined only
+     * for fields other than their ID.
+     *
+     * @return one map per reservation, client and chambre fields in nested maps
+     */
+    List<Map<String, Object>> findFieldsAfter(ReservationFields fields, ReservationFilter filter, long after,
+            int limit);
+}
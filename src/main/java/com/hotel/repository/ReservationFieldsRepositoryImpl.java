@@ -0,0 +1,111 @@
+package com.hotel.repository;
+
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReservationFieldsRepository built as JPQL from the fieldset. Fieldsets only
+ * hold known paths, and equal ones give the same query string, so Hibernate
+ * compiles each once and reuses it from its query plan cache.
+ */
+@RequiredArgsConstructor
+public class ReservationFieldsRepositoryImpl implements ReservationFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(ReservationFields fields, ReservationFilter filter, long after,
+            int limit) {
+        List<String> paths = fields.getPaths();
+        String[] parents = new String[paths.size()];
+        String[] names = new String[paths.size()];
+        StringBuilder select = new StringBuilder("SELECT ");
+        boolean joinClient = false;
+        boolean joinChambre = false;
+        for (int i = 0; i < paths.size(); i++) {
+            String path = paths.get(i);
+            int dot = path.indexOf('.');
+            names[i] = path.substring(dot + 1);
+            if (i > 0) {
+                select.append(", ");
+            }
+            if (dot < 0 || path.endsWith(".id")) {
+                // Reservation columns, and the client and chambre foreign keys without a join
+                parents[i] = dot < 0 ? null : path.substring(0, dot);
+                select.append("r.").append(path);
+            } else {
+                parents[i] = path.substring(0, dot);
+                boolean client = parents[i].equals("client");
+                joinClient |= client;
+                joinChambre |= !client;
+                select.append(client ? "c." : "ch.").append(names[i]);
+            }
+        }
+        select.append(" FROM Reservation r");
+        if (joinClient) {
+            select.append(" JOIN r.client c");
+        }
+        if (joinChambre) {
+            select.append(" JOIN r.chambre ch");
+        }
+        select.append(" WHERE r.id > :after");
+        if (filter.getClientId() != null) {
+            select.append(" AND r.client.id = :clientId");
+        }
+        if (filter.getChambreId() != null) {
+            select.append(" AND r.chambre.id = :chambreId");
+        }
+        if (filter.getDateDebut() != null) {
+            select.append(" AND r.dateFin >= :dateDebut");
+        }
+        if (filter.getDateFin() != null) {
+            select.append(" AND r.dateDebut <= :dateFin");
+        }
+        select.append(" ORDER BY r.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(select.toString(), Object[].class)
+                .setParameter("after", after)
+                .setMaxResults(limit);
+        if (filter.getClientId() != null) {
+            query.setParameter("clientId", filter.getClientId());
+        }
+        if (filter.getChambreId() != null) {
+            query.setParameter("chambreId", filter.getChambreId());
+        }
+        if (filter.getDateDebut() != null) {
+            query.setParameter("dateDebut", filter.getDateDebut());
+        }
+        if (filter.getDateFin() != null) {
+            query.setParameter("dateFin", filter.getDateFin());
+        }
+
+        List<Object[]> rows = query.getResultList();
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            items.add(toMap(parents, names, row));
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toMap(String[] parents, String[] names, Object[] row) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (parents[i] == null) {
+                item.put(names[i], row[i]);
+            } else {
+                ((Map<String, Object>) item.computeIfAbsent(parents[i], parent -> new LinkedHashMap<>()))
+                        .put(names[i], row[i]);
+            }
+        }
+        return item;
+    }
+}
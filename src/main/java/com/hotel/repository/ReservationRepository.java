@@ -1,28 +1,91 @@
 package com.hotel.repository;
 
 import com.hotel.entity.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * Repository for Reservation entity
+ * Repository for Reservation entity.
+ * Reads select ReservationView read models, joined with client and chambre
+ * column by column, instead of managed entities; "fields" reads select only
+ * the requested columns (see ReservationFieldsRepository). The "WithDetails"
+ * variant fetches client and chambre with the entity for updates, the "Refs"
+ * variants leave them as lazy references for callers needing only IDs.
  */
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationFieldsRepository {
 
     List<Reservation> findByClientId(Long clientId);
 
     List<Reservation> findByChambreId(Long chambreId);
 
+    @EntityGraph(attributePaths = {"client", "chambre"})
+    Optional<Reservation> findWithDetailsById(Long id);
+
+    @Query(ReservationView.SELECT + "WHERE r.id = :id")
+    Optional<ReservationView> findViewById(@Param("id") Long id);
+
+    @Query(ReservationView.SELECT + "WHERE c.id = :clientId ORDER BY r.id")
+    List<ReservationView> findViewsByClientId(@Param("clientId") Long clientId);
+
+    @Query(ReservationView.SELECT + "ORDER BY r.id")
+    List<ReservationView> findAllViews();
+
+    @Query(ReservationView.SELECT + "WHERE r.id > :after ORDER BY r.id")
+    List<ReservationView> findViewsAfter(@Param("after") Long after, Limit limit);
+
+    @Query(ReservationView.SELECT + "WHERE c.id = :clientId AND r.id > :after ORDER BY r.id")
+    List<ReservationView> findViewsByClientIdAfter(@Param("clientId") Long clientId, @Param("after") Long after,
+            Limit limit);
+
+    Optional<Reservation> findRefById(Long id);
+
+    List<Reservation> findRefsByOrderByIdAsc();
+
+    List<Reservation> findRefsByClientIdOrderByIdAsc(Long clientId);
+
+    List<Reservation> findRefsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Reservation> findRefsByClientIdAndIdGreaterThanOrderByIdAsc(Long clientId, Long id, Limit limit);
+
+    @Query(ReservationView.SELECT + "WHERE r.id > :after " +
+            "AND (:clientId IS NULL OR c.id = :clientId) " +
+            "AND (:chambreId IS NULL OR ch.id = :chambreId) " +
+            "AND (:dateDebut IS NULL OR r.dateFin >= :dateDebut) " +
+            "AND (:dateFin IS NULL OR r.dateDebut <= :dateFin) " +
+            "ORDER BY r.id")
+    List<ReservationView> searchViewsAfter(
+            @Param("after") Long after,
+            @Param("clientId") Long clientId,
+            @Param("chambreId") Long chambreId,
+            @Param("dateDebut") LocalDate dateDebut,
+            @Param("dateFin") LocalDate dateFin,
+            Limit limit);
+
+    @Query(ReservationView.SELECT + "WHERE r.id > :after ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ReservationView> streamViewsAfter(@Param("after") Long after);
+
     @Query("SELECT r FROM Reservation r WHERE r.chambre.id = :chambreId " +
             "AND ((r.dateDebut <= :dateFin AND r.dateFin >= :dateDebut))")
     List<Reservation> findOverlappingReservations(
             @Param("chambreId") Long chambreId,
             @Param("dateDebut") LocalDate dateDebut,
             @Param("dateFin") LocalDate dateFin);
+
+    @Query("SELECT r.id AS id, r.chambre.id AS chambreId, r.dateDebut AS dateDebut, r.dateFin AS dateFin " +
+            "FROM Reservation r")
+    Stream<ReservationSpan> streamAllSpans();
 }
@@ -0,0 +1,17 @@
+package com.hotel.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the booked date range of a reservation
+ */
+public interface ReservationSpan {
+
+    Long getId();
+
+    Long getChambreId();
+
+    LocalDate getDateDebut();
+
+    LocalDate getDateFin();
+}
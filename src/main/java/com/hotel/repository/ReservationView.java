@@ -0,0 +1,33 @@
+package com.hotel.repository;
+
+import com.hotel.entity.TypeChambre;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read model of a reservation with its client and chambre, selected column by
+ * column, so listing builds no managed entity
+ */
+public record ReservationView(
+        Long id,
+        LocalDate dateDebut,
+        LocalDate dateFin,
+        String preferences,
+        Long version,
+        Long clientId,
+        String clientNom,
+        String clientPrenom,
+        String clientEmail,
+        String clientTelephone,
+        Long chambreId,
+        TypeChambre chambreType,
+        BigDecimal chambrePrix,
+        Boolean chambreDisponible) {
+
+    static final String SELECT = "SELECT new com.hotel.repository.ReservationView("
+            + "r.id, r.dateDebut, r.dateFin, r.preferences, r.version, "
+            + "c.id, c.nom, c.prenom, c.email, c.telephone, "
+            + "ch.id, ch.type, ch.prix, ch.disponible) "
+            + "FROM Reservation r JOIN r.client c JOIN r.chambre ch ";
+}
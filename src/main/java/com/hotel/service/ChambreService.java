@@ -0,0 +1,25 @@
+package com.hotel.service;
+
+import com.hotel.dto.ChambreDTO;
+import com.hotel.entity.TypeChambre;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Business service interface for room search
+ */
+public interface ChambreService {
+
+    /**
+     * Find the bookable rooms free for the whole stay
+     * 
+     * @param type      the room type, or null for any
+     * @param dateDebut first night of the stay
+     * @param dateFin   last day of the stay
+     * @param maxPrix   the highest acceptable price, or null for any
+     * @return the matching rooms ordered by ID
+     */
+    List<ChambreDTO> searchAvailableRooms(TypeChambre type, LocalDate dateDebut, LocalDate dateFin, BigDecimal maxPrix);
+}
@@ -0,0 +1,77 @@
+package com.hotel.service;
+
+import com.hotel.dto.ChambreDTO;
+import com.hotel.entity.TypeChambre;
+import com.hotel.exception.BusinessException;
+import com.hotel.repository.ChambreRepository;
+import com.hotel.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ChambreService.
+ * Candidate rooms come from the in-memory RoomCatalog and their occupancy from
+ * the RoomAvailabilityIndex; while the index is not ready, a single SQL query
+ * does both. Results reflect committed bookings and are advisory: booking
+ * still checks for conflicts under the room lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ChambreServiceImpl implements ChambreService {
+
+    private final ChambreRepository chambreRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomCatalog roomCatalog;
+    private final ObjectProvider<ShardRouter> shardRouter;
+
+    @Override
+    public List<ChambreDTO> searchAvailableRooms(TypeChambre type, LocalDate dateDebut, LocalDate dateFin,
+            BigDecimal maxPrix) {
+        log.debug("Searching {} rooms free from {} to {} under {}", type, dateDebut, dateFin, maxPrix);
+
+        if (dateDebut == null || dateFin == null) {
+            throw new BusinessException("Start and end dates are required");
+        }
+        if (dateDebut.isAfter(dateFin)) {
+            throw new BusinessException("Start date must be before end date");
+        }
+
+        if (!availabilityIndex.isReady()) {
+            return findAvailableRooms(type, dateDebut, dateFin, maxPrix);
+        }
+        return roomCatalog.bookableRooms(type, maxPrix).stream()
+                .filter(chambre -> !availabilityIndex.hasOverlap(chambre.getId(), dateDebut, dateFin, null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * With sharding, each shard only knows the bookings of its own rooms, so
+     * each answers for those
+     */
+    private List<ChambreDTO> findAvailableRooms(TypeChambre type, LocalDate dateDebut, LocalDate dateFin,
+            BigDecimal maxPrix) {
+        ShardRouter shards = shardRouter.getIfAvailable();
+        if (shards == null) {
+            return chambreRepository.findAvailableRooms(type, dateDebut, dateFin, maxPrix);
+        }
+        return shards.gather(shard -> chambreRepository.findAvailableRooms(type, dateDebut, dateFin, maxPrix)
+                        .stream()
+                        .filter(chambre -> shards.shardOf(chambre.getId()) == shard)
+                        .toList())
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(ChambreDTO::getId))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,49 @@
+package com.hotel.service;
+
+import com.hotel.dto.ChambreDTO;
+import com.hotel.dto.ClientDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Business service interface for client and room reference data.
+ * Used to resolve the references carried by reservations, singly from the
+ * clients and chambres caches or in bulk.
+ */
+public interface ReferenceDataService {
+
+    /**
+     * Get a client by ID, from the clients cache
+     * 
+     * @param id the client ID
+     * @return the client, shared with other callers and not to be modified
+     * @throws com.hotel.exception.ResourceNotFoundException if there is no such client
+     */
+    ClientDTO getClient(Long id);
+
+    /**
+     * Get a room by ID, from the chambres cache
+     * 
+     * @param id the room ID
+     * @return the room, shared with other callers and not to be modified
+     * @throws com.hotel.exception.ResourceNotFoundException if there is no such room
+     */
+    ChambreDTO getChambre(Long id);
+
+    /**
+     * Get the clients with the given IDs
+     * 
+     * @param ids the client IDs
+     * @return the clients found, in no particular order
+     */
+    List<ClientDTO> getClientsByIds(Collection<Long> ids);
+
+    /**
+     * Get the rooms with the given IDs
+     * 
+     * @param ids the room IDs
+     * @return the rooms found, in no particular order
+     */
+    List<ChambreDTO> getChambresByIds(Collection<Long> ids);
+}
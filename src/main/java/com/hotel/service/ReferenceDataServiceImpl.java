@@ -0,0 +1,69 @@
+package com.hotel.service;
+
+import com.hotel.config.CacheConfig;
+import com.hotel.dto.ChambreDTO;
+import com.hotel.dto.ClientDTO;
+import com.hotel.exception.ResourceNotFoundException;
+import com.hotel.mapper.ReservationMapper;
+import com.hotel.repository.ChambreRepository;
+import com.hotel.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of ReferenceDataService.
+ * Each call issues a single query whatever the number of IDs. Single lookups
+ * cache DTOs rather than entities, which belong to the session that loaded
+ * them; a missing ID throws, so it is not cached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+    private final ClientRepository clientRepository;
+    private final ChambreRepository chambreRepository;
+    private final ReservationMapper reservationMapper;
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CLIENTS, key = "#id", sync = true)
+    public ClientDTO getClient(Long id) {
+        log.debug("Fetching client {}", id);
+        return clientRepository.findById(id)
+                .map(reservationMapper::toClientDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Client", id));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CHAMBRES, key = "#id", sync = true)
+    public ChambreDTO getChambre(Long id) {
+        log.debug("Fetching room {}", id);
+        return chambreRepository.findById(id)
+                .map(reservationMapper::toChambreDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Chambre", id));
+    }
+
+    @Override
+    public List<ClientDTO> getClientsByIds(Collection<Long> ids) {
+        log.debug("Fetching {} clients", ids.size());
+        return clientRepository.findAllById(ids).stream()
+                .map(reservationMapper::toClientDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ChambreDTO> getChambresByIds(Collection<Long> ids) {
+        log.debug("Fetching {} rooms", ids.size());
+        return chambreRepository.findAllById(ids).stream()
+                .map(reservationMapper::toChambreDTO)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,17 @@
+package com.hotel.service;
+
+/**
+ * How much of a reservation's client and chambre to load when listing
+ */
+public enum ReservationFetch {
+
+    /**
+     * Client and chambre fully populated
+     */
+    DETAILS,
+
+    /**
+     * Client and chambre carry only their IDs; no join is made
+     */
+    REFERENCES
+}
@@ -1,9 +1,14 @@
 package com.hotel.service;
 
 import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFieldsPage;
+import com.hotel.dto.ReservationFilter;
+import com.hotel.dto.ReservationPage;
 import com.hotel.dto.ReservationRequestDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Business service interface for Reservation operations.
@@ -20,6 +25,16 @@ public interface ReservationService {
      */
     ReservationDTO createReservation(ReservationRequestDTO request);
 
+    /**
+     * Create a batch of reservations in a single transaction.
+     * The whole batch is validated first, including overlaps between its own
+     * items and with existing reservations; nothing is stored if any item fails.
+     * 
+     * @param requests the reservation requests
+     * @return the created reservations, in request order
+     */
+    List<ReservationDTO> createReservations(List<ReservationRequestDTO> requests);
+
     /**
      * Get a reservation by its ID
      * 
@@ -28,6 +43,16 @@ public interface ReservationService {
      */
     ReservationDTO getReservationById(Long id);
 
+    /**
+     * Get a reservation by its ID, loading client and chambre as requested.
+     * Unlike {@link #getReservationById(Long)}, not cached.
+     * 
+     * @param id    the reservation ID
+     * @param fetch how much of client and chambre to load
+     * @return the reservation if found
+     */
+    ReservationDTO getReservationById(Long id, ReservationFetch fetch);
+
     /**
      * Update an existing reservation
      * 
@@ -37,6 +62,17 @@ public interface ReservationService {
      */
     ReservationDTO updateReservation(Long id, ReservationRequestDTO request);
 
+    /**
+     * Update an existing reservation if it is still at the expected version
+     * 
+     * @param id              the reservation ID to update
+     * @param request         the updated reservation data
+     * @param expectedVersion the version the caller last read, or null to update unconditionally
+     * @return the updated reservation
+     * @throws com.hotel.exception.VersionConflictException if the reservation is at another version
+     */
+    ReservationDTO updateReservation(Long id, ReservationRequestDTO request, Long expectedVersion);
+
     /**
      * Delete a reservation by its ID
      * 
@@ -52,6 +88,14 @@ public interface ReservationService {
      */
     List<ReservationDTO> getAllReservations();
 
+    /**
+     * Get all reservations, loading client and chambre as requested
+     * 
+     * @param fetch how much of client and chambre to load
+     * @return list of all reservations
+     */
+    List<ReservationDTO> getAllReservations(ReservationFetch fetch);
+
     /**
      * Get all reservations for a specific client
      * 
@@ -59,4 +103,86 @@ public interface ReservationService {
      * @return list of reservations for the client
      */
     List<ReservationDTO> getReservationsByClient(Long clientId);
+
+    /**
+     * Get all reservations for a specific client, loading client and chambre as requested
+     * 
+     * @param clientId the client ID
+     * @param fetch    how much of client and chambre to load
+     * @return list of reservations for the client
+     */
+    List<ReservationDTO> getReservationsByClient(Long clientId, ReservationFetch fetch);
+
+    /**
+     * Get a page of reservations ordered by ID
+     * 
+     * @param after the ID to continue after (exclusive), or null for the first page
+     * @param limit the page size, or null for the default; capped by the maximum page size
+     * @return the page of reservations
+     */
+    ReservationPage getReservations(Long after, Integer limit);
+
+    /**
+     * Get a page of reservations ordered by ID, loading client and chambre as requested
+     * 
+     * @param after the ID to continue after (exclusive), or null for the first page
+     * @param limit the page size, or null for the default; capped by the maximum page size
+     * @param fetch how much of client and chambre to load
+     * @return the page of reservations
+     */
+    ReservationPage getReservations(Long after, Integer limit, ReservationFetch fetch);
+
+    /**
+     * Get a page of reservations for a specific client ordered by ID
+     * 
+     * @param clientId the client ID
+     * @param after    the ID to continue after (exclusive), or null for the first page
+     * @param limit    the page size, or null for the default; capped by the maximum page size
+     * @return the page of reservations for the client
+     */
+    ReservationPage getReservationsByClient(Long clientId, Long after, Integer limit);
+
+    /**
+     * Get a page of reservations for a specific client ordered by ID, loading
+     * client and chambre as requested
+     * 
+     * @param clientId the client ID
+     * @param after    the ID to continue after (exclusive), or null for the first page
+     * @param limit    the page size, or null for the default; capped by the maximum page size
+     * @param fetch    how much of client and chambre to load
+     * @return the page of reservations for the client
+     */
+    ReservationPage getReservationsByClient(Long clientId, Long after, Integer limit, ReservationFetch fetch);
+
+    /**
+     * Get a page of reservations matching a filter, ordered by ID
+     * 
+     * @param filter the criteria to match
+     * @param after  the ID to continue after (exclusive), or null for the first page
+     * @param limit  the page size, or null for the default; capped by the maximum page size
+     * @return the page of matching reservations
+     */
+    ReservationPage searchReservations(ReservationFilter filter, Long after, Integer limit);
+
+    /**
+     * Get a page of reservations matching a filter, ordered by ID, reading
+     * only the columns of the given fields
+     * 
+     * @param fields the fields to return; the ID is always included
+     * @param filter the criteria to match
+     * @param after  the ID to continue after (exclusive), or null for the first page
+     * @param limit  the page size, or null for the default; capped by the maximum page size
+     * @return the page of reservations, each holding only the given fields
+     */
+    ReservationFieldsPage getReservationFields(ReservationFields fields, ReservationFilter filter, Long after,
+            Integer limit);
+
+    /**
+     * Stream all reservations ordered by ID, one at a time, without
+     * materializing the result set
+     * 
+     * @param after    the ID to continue after (exclusive), or null to start from the first
+     * @param consumer receives each reservation
+     */
+    void streamReservations(Long after, Consumer<ReservationDTO> consumer);
 }
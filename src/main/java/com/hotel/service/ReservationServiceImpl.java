@@ -1,23 +1,48 @@
 package com.hotel.service;
 
+import com.hotel.config.CacheConfig;
+import com.hotel.dto.ChambreDTO;
+import com.hotel.dto.ClientDTO;
 import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFieldsPage;
+import com.hotel.dto.ReservationFilter;
+import com.hotel.dto.ReservationPage;
 import com.hotel.dto.ReservationRequestDTO;
 import com.hotel.entity.Chambre;
 import com.hotel.entity.Client;
 import com.hotel.entity.Reservation;
 import com.hotel.exception.ResourceNotFoundException;
 import com.hotel.exception.BusinessException;
+import com.hotel.exception.VersionConflictException;
+import com.hotel.feed.ReservationChangeFeed;
+import com.hotel.journal.ReservationJournal;
 import com.hotel.mapper.ReservationMapper;
 import com.hotel.repository.ChambreRepository;
 import com.hotel.repository.ClientRepository;
 import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.ReservationView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of ReservationService.
@@ -33,6 +58,20 @@ public class ReservationServiceImpl implements ReservationService {
     private final ClientRepository clientRepository;
     private final ChambreRepository chambreRepository;
     private final ReservationMapper reservationMapper;
+    private final ReferenceDataService referenceDataService;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomBookingLocks roomBookingLocks;
+    private final ReservationJournal reservationJournal;
+    private final ReservationChangeFeed changeFeed;
+
+    @Value("${hotel.pagination.default-limit:50}")
+    private int defaultPageSize;
+
+    @Value("${hotel.pagination.max-limit:500}")
+    private int maxPageSize;
+
+    @Value("${hotel.batch.max-size:10000}")
+    private int maxBatchSize;
 
     @Override
     public ReservationDTO createReservation(ReservationRequestDTO request) {
@@ -43,30 +82,25 @@ public class ReservationServiceImpl implements ReservationService {
             throw new BusinessException("Start date must be before end date");
         }
 
-        // Find client
-        Client client = clientRepository.findById(request.getClientId())
-                .orElseThrow(() -> new ResourceNotFoundException("Client", request.getClientId()));
-
-        // Find chambre
-        Chambre chambre = chambreRepository.findById(request.getChambreId())
-                .orElseThrow(() -> new ResourceNotFoundException("Chambre", request.getChambreId()));
+        // Find client and chambre, usually from the reference data caches
+        ClientDTO client = referenceDataService.getClient(request.getClientId());
+        ChambreDTO chambre = referenceDataService.getChambre(request.getChambreId());
 
         // Check room availability
         if (!chambre.getDisponible()) {
             throw new BusinessException("Room is not available");
         }
 
-        // Check for overlapping reservations
-        List<Reservation> overlapping = reservationRepository.findOverlappingReservations(
-                chambre.getId(), request.getDateDebut(), request.getDateFin());
-        if (!overlapping.isEmpty()) {
+        // Serialize bookings of this room until commit, then check for overlaps
+        roomBookingLocks.lockUntilCompletion(chambre.getId());
+        if (isRoomBooked(chambre.getId(), request.getDateDebut(), request.getDateFin(), null)) {
             throw new BusinessException("Room is already booked for the selected dates");
         }
 
         // Create reservation
         Reservation reservation = Reservation.builder()
-                .client(client)
-                .chambre(chambre)
+                .client(clientRepository.getReferenceById(client.getId()))
+                .chambre(chambreRepository.getReferenceById(chambre.getId()))
                 .dateDebut(request.getDateDebut())
                 .dateFin(request.getDateFin())
                 .preferences(request.getPreferences())
@@ -75,24 +109,150 @@ public class ReservationServiceImpl implements ReservationService {
         Reservation saved = reservationRepository.save(reservation);
         log.info("Created reservation with ID: {}", saved.getId());
 
-        return reservationMapper.toReservationDTO(saved);
+        ReservationDTO created = toReservationDTO(saved, client, chambre);
+        afterCommit(() -> {
+            availabilityIndex.put(saved.getId(), chambre.getId(), saved.getDateDebut(), saved.getDateFin());
+            reservationJournal.recordSaved(saved);
+            changeFeed.publishCreated(created);
+        });
+
+        return created;
+    }
+
+    @Override
+    public List<ReservationDTO> createReservations(List<ReservationRequestDTO> requests) {
+        log.info("Creating batch of {} reservations", requests.size());
+
+        if (requests.size() > maxBatchSize) {
+            throw new BusinessException("Batch size must not exceed " + maxBatchSize);
+        }
+
+        // Validate dates
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequestDTO request = requests.get(i);
+            if (request == null) {
+                throw new BusinessException("Item " + i + ": Reservation must not be null");
+            }
+            if (request.getDateDebut().isAfter(request.getDateFin())) {
+                throw new BusinessException("Item " + i + ": Start date must be before end date");
+            }
+        }
+
+        // Find clients and chambres in one query per type
+        Map<Long, Client> clients = clientRepository.findAllById(requests.stream()
+                        .map(ReservationRequestDTO::getClientId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<Long, Chambre> chambres = chambreRepository.findAllById(requests.stream()
+                        .map(ReservationRequestDTO::getChambreId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Chambre::getId, Function.identity()));
+
+        for (ReservationRequestDTO request : requests) {
+            if (!clients.containsKey(request.getClientId())) {
+                throw new ResourceNotFoundException("Client", request.getClientId());
+            }
+            Chambre chambre = chambres.get(request.getChambreId());
+            if (chambre == null) {
+                throw new ResourceNotFoundException("Chambre", request.getChambreId());
+            }
+            if (!chambre.getDisponible()) {
+                throw new BusinessException("Room " + chambre.getId() + " is not available");
+            }
+        }
+
+        // Serialize with other bookings of the same rooms until commit
+        roomBookingLocks.lockUntilCompletion(chambres.keySet().toArray(Long[]::new));
+
+        // Check for overlaps inside the batch, then with existing reservations
+        Map<Long, List<ReservationRequestDTO>> requestsByRoom = requests.stream()
+                .collect(Collectors.groupingBy(ReservationRequestDTO::getChambreId));
+        requestsByRoom.forEach((chambreId, roomRequests) -> {
+            roomRequests.sort(Comparator.comparing(ReservationRequestDTO::getDateDebut));
+            LocalDate latestFin = null;
+            for (ReservationRequestDTO request : roomRequests) {
+                if (latestFin != null && !request.getDateDebut().isAfter(latestFin)) {
+                    throw new BusinessException("Batch contains overlapping reservations for room " + chambreId);
+                }
+                latestFin = latestFin == null || request.getDateFin().isAfter(latestFin)
+                        ? request.getDateFin() : latestFin;
+            }
+        });
+        for (ReservationRequestDTO request : requests) {
+            if (isRoomBooked(request.getChambreId(), request.getDateDebut(), request.getDateFin(), null)) {
+                throw new BusinessException("Room " + request.getChambreId()
+                        + " is already booked for " + request.getDateDebut() + " - " + request.getDateFin());
+            }
+        }
+
+        // Create reservations, inserted in JDBC batches at flush
+        List<Reservation> reservations = requests.stream()
+                .map(request -> Reservation.builder()
+                        .client(clients.get(request.getClientId()))
+                        .chambre(chambres.get(request.getChambreId()))
+                        .dateDebut(request.getDateDebut())
+                        .dateFin(request.getDateFin())
+                        .preferences(request.getPreferences())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<Reservation> saved = reservationRepository.saveAll(reservations);
+        log.info("Created batch of {} reservations", saved.size());
+
+        List<ReservationDTO> created = saved.stream()
+                .map(reservationMapper::toReservationDTO)
+                .collect(Collectors.toList());
+        afterCommit(() -> {
+            saved.forEach(r -> availabilityIndex.put(r.getId(), r.getChambre().getId(),
+                    r.getDateDebut(), r.getDateFin()));
+            reservationJournal.recordSaved(saved);
+            created.forEach(changeFeed::publishCreated);
+        });
+
+        return created;
     }
 
+    // Read-through cache, one loader per key under concurrent misses
     @Override
+    @Cacheable(cacheNames = CacheConfig.RESERVATIONS, key = "#id", sync = true)
     @Transactional(readOnly = true)
     public ReservationDTO getReservationById(Long id) {
         log.debug("Fetching reservation with ID: {}", id);
-        Reservation reservation = reservationRepository.findById(id)
+        ReservationView reservation = reservationRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
         return reservationMapper.toReservationDTO(reservation);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ReservationDTO getReservationById(Long id, ReservationFetch fetch) {
+        log.debug("Fetching reservation with ID: {} ({})", id, fetch);
+        if (fetch == ReservationFetch.REFERENCES) {
+            return reservationRepository.findRefById(id)
+                    .map(reservationMapper::toReservationRefDTO)
+                    .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+        }
+        return reservationRepository.findViewById(id)
+                .map(reservationMapper::toReservationDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESERVATIONS, key = "#id")
     public ReservationDTO updateReservation(Long id, ReservationRequestDTO request) {
+        return updateReservation(id, request, null);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.RESERVATIONS, key = "#id")
+    public ReservationDTO updateReservation(Long id, ReservationRequestDTO request, Long expectedVersion) {
         log.info("Updating reservation with ID: {}", id);
 
-        Reservation reservation = reservationRepository.findById(id)
+        Reservation reservation = reservationRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+        if (expectedVersion != null && !expectedVersion.equals(reservation.getVersion())) {
+            throw new VersionConflictException("Reservation", id, expectedVersion);
+        }
+        Long previousChambreId = reservation.getChambre().getId();
+        Long previousClientId = reservation.getClient().getId();
 
         // Validate dates
         if (request.getDateDebut().isAfter(request.getDateFin())) {
@@ -100,56 +260,99 @@ public class ReservationServiceImpl implements ReservationService {
         }
 
         // Update client if changed
-        if (!reservation.getClient().getId().equals(request.getClientId())) {
-            Client newClient = clientRepository.findById(request.getClientId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Client", request.getClientId()));
-            reservation.setClient(newClient);
+        ClientDTO client = reservationMapper.toClientDTO(reservation.getClient());
+        if (!client.getId().equals(request.getClientId())) {
+            client = referenceDataService.getClient(request.getClientId());
+            reservation.setClient(clientRepository.getReferenceById(client.getId()));
         }
 
-        // Update chambre if changed
-        if (!reservation.getChambre().getId().equals(request.getChambreId())) {
-            Chambre newChambre = chambreRepository.findById(request.getChambreId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Chambre", request.getChambreId()));
+        // Serialize with other bookings of the current and target rooms until commit
+        roomBookingLocks.lockUntilCompletion(reservation.getChambre().getId(), request.getChambreId());
 
-            // Check for overlapping reservations (excluding current reservation)
-            List<Reservation> overlapping = reservationRepository.findOverlappingReservations(
-                    newChambre.getId(), request.getDateDebut(), request.getDateFin());
-            overlapping.removeIf(r -> r.getId().equals(id));
+        // Update chambre if changed
+        ChambreDTO chambre = reservationMapper.toChambreDTO(reservation.getChambre());
+        if (!chambre.getId().equals(request.getChambreId())) {
+            chambre = referenceDataService.getChambre(request.getChambreId());
+            reservation.setChambre(chambreRepository.getReferenceById(chambre.getId()));
+        }
 
-            if (!overlapping.isEmpty()) {
-                throw new BusinessException("Room is already booked for the selected dates");
-            }
-            reservation.setChambre(newChambre);
+        // Check for overlapping reservations (excluding current reservation), new dates in the same room included
+        if (isRoomBooked(request.getChambreId(), request.getDateDebut(), request.getDateFin(), id)) {
+            throw new BusinessException("Room is already booked for the selected dates");
         }
 
         reservation.setDateDebut(request.getDateDebut());
         reservation.setDateFin(request.getDateFin());
         reservation.setPreferences(request.getPreferences());
 
-        Reservation updated = reservationRepository.save(reservation);
+        // Flushed here so the returned version is the new one; the update only
+        // matches the row at the version read above, so a concurrent update fails
+        Reservation updated;
+        try {
+            updated = reservationRepository.saveAndFlush(reservation);
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion != null) {
+                throw new VersionConflictException("Reservation", id, expectedVersion);
+            }
+            throw e;
+        }
         log.info("Updated reservation with ID: {}", updated.getId());
 
-        return reservationMapper.toReservationDTO(updated);
+        Long chambreId = updated.getChambre().getId();
+        ReservationDTO result = toReservationDTO(updated, client, chambre);
+        afterCommit(() -> {
+            availabilityIndex.put(updated.getId(), chambreId, updated.getDateDebut(), updated.getDateFin());
+            reservationJournal.recordSaved(updated);
+            changeFeed.publishUpdated(result, previousChambreId, previousClientId);
+        });
+
+        return result;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.RESERVATIONS, key = "#id")
     public boolean deleteReservation(Long id) {
         log.info("Deleting reservation with ID: {}", id);
 
-        if (!reservationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Reservation", id);
-        }
+        // Loaded rather than counted, for the room and client of the change event
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+        Long chambreId = reservation.getChambre().getId();
+        Long clientId = reservation.getClient().getId();
 
-        reservationRepository.deleteById(id);
+        // Serialize with other writes of the room until commit, so the journal, index and
+        // change feed see them in commit order; the delete only matches the version read
+        // above, so a write that committed in between makes it fail
+        roomBookingLocks.lockUntilCompletion(chambreId);
+
+        reservationRepository.delete(reservation);
+        reservationRepository.flush();
         log.info("Deleted reservation with ID: {}", id);
+
+        afterCommit(() -> {
+            availabilityIndex.remove(id);
+            reservationJournal.recordDeleted(id);
+            changeFeed.publishDeleted(id, chambreId, clientId);
+        });
         return true;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ReservationDTO> getAllReservations() {
-        log.debug("Fetching all reservations");
-        return reservationRepository.findAll().stream()
+        return getAllReservations(ReservationFetch.DETAILS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getAllReservations(ReservationFetch fetch) {
+        log.debug("Fetching all reservations ({})", fetch);
+        if (fetch == ReservationFetch.REFERENCES) {
+            return reservationRepository.findRefsByOrderByIdAsc().stream()
+                    .map(reservationMapper::toReservationRefDTO)
+                    .collect(Collectors.toList());
+        }
+        return reservationRepository.findAllViews().stream()
                 .map(reservationMapper::toReservationDTO)
                 .collect(Collectors.toList());
     }
@@ -157,9 +360,183 @@ public class ReservationServiceImpl implements ReservationService {
     @Override
     @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsByClient(Long clientId) {
-        log.debug("Fetching reservations for client: {}", clientId);
-        return reservationRepository.findByClientId(clientId).stream()
+        return getReservationsByClient(clientId, ReservationFetch.DETAILS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsByClient(Long clientId, ReservationFetch fetch) {
+        log.debug("Fetching reservations for client: {} ({})", clientId, fetch);
+        if (fetch == ReservationFetch.REFERENCES) {
+            return reservationRepository.findRefsByClientIdOrderByIdAsc(clientId).stream()
+                    .map(reservationMapper::toReservationRefDTO)
+                    .collect(Collectors.toList());
+        }
+        return reservationRepository.findViewsByClientId(clientId).stream()
                 .map(reservationMapper::toReservationDTO)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationPage getReservations(Long after, Integer limit) {
+        return getReservations(after, limit, ReservationFetch.DETAILS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationPage getReservations(Long after, Integer limit, ReservationFetch fetch) {
+        log.debug("Fetching reservations after ID {} (limit {}, {})", after, limit, fetch);
+        int pageSize = pageSize(limit);
+        if (fetch == ReservationFetch.REFERENCES) {
+            return toPage(reservationRepository.findRefsByIdGreaterThanOrderByIdAsc(
+                    keysetStart(after), Limit.of(pageSize + 1)), pageSize, reservationMapper::toReservationRefDTO);
+        }
+        return toPage(reservationRepository.findViewsAfter(keysetStart(after), Limit.of(pageSize + 1)),
+                pageSize, reservationMapper::toReservationDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationPage getReservationsByClient(Long clientId, Long after, Integer limit) {
+        return getReservationsByClient(clientId, after, limit, ReservationFetch.DETAILS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationPage getReservationsByClient(Long clientId, Long after, Integer limit,
+            ReservationFetch fetch) {
+        log.debug("Fetching reservations for client {} after ID {} (limit {}, {})", clientId, after, limit, fetch);
+        int pageSize = pageSize(limit);
+        if (fetch == ReservationFetch.REFERENCES) {
+            return toPage(reservationRepository.findRefsByClientIdAndIdGreaterThanOrderByIdAsc(
+                            clientId, keysetStart(after), Limit.of(pageSize + 1)),
+                    pageSize, reservationMapper::toReservationRefDTO);
+        }
+        return toPage(reservationRepository.findViewsByClientIdAfter(
+                clientId, keysetStart(after), Limit.of(pageSize + 1)), pageSize, reservationMapper::toReservationDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationPage searchReservations(ReservationFilter filter, Long after, Integer limit) {
+        log.debug("Searching reservations matching {} after ID {} (limit {})", filter, after, limit);
+        validateDates(filter);
+        int pageSize = pageSize(limit);
+        List<ReservationView> rows = reservationRepository.searchViewsAfter(keysetStart(after),
+                filter.getClientId(), filter.getChambreId(), filter.getDateDebut(), filter.getDateFin(),
+                Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, reservationMapper::toReservationDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationFieldsPage getReservationFields(ReservationFields fields, ReservationFilter filter,
+            Long after, Integer limit) {
+        log.debug("Fetching fields {} of reservations matching {} after ID {} (limit {})", fields, filter, after,
+                limit);
+        validateDates(filter);
+        int pageSize = pageSize(limit);
+        List<Map<String, Object>> rows = reservationRepository.findFieldsAfter(fields, filter, keysetStart(after),
+                pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<Map<String, Object>> items = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        return ReservationFieldsPage.builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextAfter(items.isEmpty() ? null : (Long) items.get(items.size() - 1).get("id"))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamReservations(Long after, Consumer<ReservationDTO> consumer) {
+        log.debug("Streaming reservations after ID {}", after);
+        // Read models are not kept by the persistence context, so the heap stays flat while streaming
+        try (Stream<ReservationView> rows = reservationRepository.streamViewsAfter(keysetStart(after))) {
+            rows.forEach(reservation -> consumer.accept(reservationMapper.toReservationDTO(reservation)));
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BusinessException("Limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private static long keysetStart(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private static void validateDates(ReservationFilter filter) {
+        if (filter.getDateDebut() != null && filter.getDateFin() != null
+                && filter.getDateDebut().isAfter(filter.getDateFin())) {
+            throw new BusinessException("Start date must be before end date");
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with one extra element to detect a next page
+     */
+    private static <T> ReservationPage toPage(List<T> rows, int pageSize, Function<T, ReservationDTO> mapping) {
+        boolean hasNext = rows.size() > pageSize;
+        List<ReservationDTO> items = rows.stream()
+                .limit(pageSize)
+                .map(mapping)
+                .collect(Collectors.toList());
+        return ReservationPage.builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextAfter(items.isEmpty() ? null : items.get(items.size() - 1).getId())
+                .build();
+    }
+
+    /**
+     * Map a reservation whose client and chambre are already known, without
+     * initializing the references they were set from
+     */
+    private ReservationDTO toReservationDTO(Reservation reservation, ClientDTO client, ChambreDTO chambre) {
+        ReservationDTO dto = reservationMapper.toReservationRefDTO(reservation);
+        dto.setClient(client);
+        dto.setChambre(chambre);
+        return dto;
+    }
+
+    /**
+     * Check whether a room is booked for the given dates.
+     * The availability index answers free rooms directly; a conflict it reports
+     * (or any check made before it is warmed) is confirmed against the database.
+     */
+    private boolean isRoomBooked(Long chambreId, LocalDate dateDebut, LocalDate dateFin, Long excludedReservationId) {
+        if (availabilityIndex.isReady()
+                && !availabilityIndex.hasOverlap(chambreId, dateDebut, dateFin, excludedReservationId)) {
+            return false;
+        }
+        List<Reservation> overlapping = reservationRepository.findOverlappingReservations(
+                chambreId, dateDebut, dateFin);
+        if (excludedReservationId != null) {
+            overlapping.removeIf(r -> r.getId().equals(excludedReservationId));
+        }
+        return !overlapping.isEmpty();
+    }
+
+    /**
+     * Run an action once the current transaction has committed
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,175 @@
+package com.hotel.service;
+
+import com.hotel.repository.ReservationRepository;
+import com.hotel.repository.ReservationSpan;
+import com.hotel.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of booked date ranges per room.
+ * Answers overlap checks without a database round trip. The database stays
+ * the source of truth: the index is warmed from it at startup, updated after
+ * each commit, and callers confirm reported conflicts against it.
+ */
+@Component
+@Slf4j
+public class RoomAvailabilityIndex {
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final boolean enabled;
+
+    private final ConcurrentMap<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Stay> staysByReservation = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public RoomAvailabilityIndex(ReservationRepository reservationRepository,
+            PlatformTransactionManager transactionManager, ObjectProvider<ShardRouter> shardRouter,
+            @Value("${hotel.availability.index-enabled:true}") boolean enabled) {
+        this.reservationRepository = reservationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Load every booked range from the database once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Room availability index disabled, overlap checks will query the database");
+            return;
+        }
+        long start = System.nanoTime();
+        ShardRouter shards = shardRouter.getIfAvailable();
+        if (shards == null) {
+            loadSpans();
+        } else {
+            shards.gather(shard -> loadSpans());
+        }
+        ready = true;
+        log.info("Room availability index warmed with {} reservations in {} ms",
+                staysByReservation.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Void loadSpans() {
+        return readOnlyTransaction.execute(status -> {
+            try (Stream<ReservationSpan> spans = reservationRepository.streamAllSpans()) {
+                spans.forEach(span -> put(span.getId(), span.getChambreId(), span.getDateDebut(), span.getDateFin()));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Whether the index is enabled and fully loaded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Check whether a room has a stay overlapping the given dates (bounds inclusive)
+     *
+     * @param excludedReservationId reservation to ignore, or null
+     */
+    public boolean hasOverlap(Long chambreId, LocalDate dateDebut, LocalDate dateFin, Long excludedReservationId) {
+        RoomCalendar calendar = calendars.get(chambreId);
+        return calendar != null && calendar.overlaps(dateDebut, dateFin, excludedReservationId);
+    }
+
+    /**
+     * Room of an indexed reservation, or null if the index does not know it
+     */
+    public Long chambreOf(Long reservationId) {
+        Stay stay = staysByReservation.get(reservationId);
+        return stay != null ? stay.chambreId() : null;
+    }
+
+    /**
+     * Record or replace the booked range of a reservation
+     */
+    public void put(Long reservationId, Long chambreId, LocalDate dateDebut, LocalDate dateFin) {
+        if (!enabled) {
+            return;
+        }
+        Stay stay = new Stay(reservationId, chambreId, dateDebut, dateFin);
+        staysByReservation.compute(reservationId, (id, previous) -> {
+            if (previous != null) {
+                calendars.get(previous.chambreId()).remove(previous);
+            }
+            calendars.computeIfAbsent(chambreId, key -> new RoomCalendar()).add(stay);
+            return stay;
+        });
+    }
+
+    /**
+     * Forget the booked range of a reservation
+     */
+    public void remove(Long reservationId) {
+        if (!enabled) {
+            return;
+        }
+        staysByReservation.computeIfPresent(reservationId, (id, previous) -> {
+            calendars.get(previous.chambreId()).remove(previous);
+            return null;
+        });
+    }
+
+    private record Stay(long reservationId, long chambreId, LocalDate dateDebut, LocalDate dateFin) {
+
+        static final Comparator<Stay> ORDER = Comparator.comparing(Stay::dateDebut)
+                .thenComparingLong(Stay::reservationId);
+    }
+
+    /**
+     * Stays of a single room ordered by start date. Overlapping stays are
+     * tolerated; the scan window is bounded by the longest stay seen.
+     */
+    private static final class RoomCalendar {
+
+        private final NavigableSet<Stay> stays = new TreeSet<>(Stay.ORDER);
+        private long longestStayDays;
+
+        synchronized void add(Stay stay) {
+            stays.add(stay);
+            longestStayDays = Math.max(longestStayDays, ChronoUnit.DAYS.between(stay.dateDebut(), stay.dateFin()));
+        }
+
+        synchronized void remove(Stay stay) {
+            stays.remove(stay);
+        }
+
+        synchronized boolean overlaps(LocalDate dateDebut, LocalDate dateFin, Long excludedReservationId) {
+            Stay from = new Stay(Long.MIN_VALUE, 0, dateDebut.minusDays(longestStayDays), null);
+            Stay to = new Stay(Long.MAX_VALUE, 0, dateFin, null);
+            for (Stay stay : stays.subSet(from, true, to, true)) {
+                if (!stay.dateFin().isBefore(dateDebut)
+                        && (excludedReservationId == null || stay.reservationId() != excludedReservationId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
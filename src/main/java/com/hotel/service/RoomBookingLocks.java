@@ -0,0 +1,90 @@
+package com.hotel.service;
+
+import com.hotel.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing booking writes per room.
+ * Writes to rooms on different stripes proceed in parallel; writes to the same
+ * room are linearized from the overlap check until their transaction completes,
+ * so no isolation level stronger than READ COMMITTED is needed.
+ */
+@Component
+public class RoomBookingLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public RoomBookingLocks(@Value("${hotel.booking.lock-stripes:256}") int stripeCount,
+            @Value("${hotel.booking.lock-timeout-ms:5000}") long timeoutMillis) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Lock the given rooms until the current transaction commits or rolls back.
+     * Stripes are always taken in ascending order to rule out deadlocks.
+     *
+     * @param chambreIds the rooms to lock, null entries are ignored
+     */
+    public void lockUntilCompletion(Long... chambreIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Room locks require an active transaction");
+        }
+
+        int[] indexes = Arrays.stream(chambreIds)
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        List<ReentrantLock> acquired = new ArrayList<>(indexes.length);
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new BusinessException("Room is busy, please retry");
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(acquired);
+            throw new BusinessException("Interrupted while waiting for room lock", e);
+        } catch (RuntimeException e) {
+            unlock(acquired);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(acquired);
+            }
+        });
+    }
+
+    private int stripeOf(Long chambreId) {
+        return Math.floorMod(Long.hashCode(chambreId), stripes.length);
+    }
+
+    private static void unlock(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
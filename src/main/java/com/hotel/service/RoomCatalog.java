@@ -0,0 +1,88 @@
+package com.hotel.service;
+
+import com.hotel.dto.ChambreDTO;
+import com.hotel.entity.TypeChambre;
+import com.hotel.repository.ChambreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory snapshot of the bookable rooms, used as search candidates.
+ * Loaded on first use and reloaded after any room is created, updated or
+ * deleted, so searches scan memory instead of the chambres table.
+ */
+@Component
+@Slf4j
+public class RoomCatalog {
+
+    private final ChambreRepository chambreRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public RoomCatalog(ChambreRepository chambreRepository) {
+        this.chambreRepository = chambreRepository;
+    }
+
+    /**
+     * Bookable rooms of the given type (null for any) priced at most maxPrix
+     * (null for any), ordered by ID
+     */
+    public List<ChambreDTO> bookableRooms(TypeChambre type, BigDecimal maxPrix) {
+        List<ChambreDTO> rooms = current().rooms(type);
+        if (maxPrix == null) {
+            return rooms;
+        }
+        List<ChambreDTO> affordable = new ArrayList<>();
+        for (ChambreDTO room : rooms) {
+            if (room.getPrix().compareTo(maxPrix) <= 0) {
+                affordable.add(room);
+            }
+        }
+        return affordable;
+    }
+
+    /**
+     * Drop the snapshot; the next search reloads it
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private Snapshot current() {
+        long expected = generation.get();
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == expected) {
+            return current;
+        }
+        long start = System.nanoTime();
+        List<ChambreDTO> all = Collections.unmodifiableList(chambreRepository.findBookableRooms(null, null));
+        Map<TypeChambre, List<ChambreDTO>> byType = new EnumMap<>(TypeChambre.class);
+        for (TypeChambre type : TypeChambre.values()) {
+            byType.put(type, all.stream().filter(room -> room.getType() == type).toList());
+        }
+        Snapshot loaded = new Snapshot(expected, all, byType);
+        // A room changed while loading: serve this result but do not keep it
+        if (generation.get() == expected) {
+            snapshot = loaded;
+        }
+        log.debug("Room catalog loaded with {} bookable rooms in {} ms",
+                all.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded;
+    }
+
+    private record Snapshot(long generation, List<ChambreDTO> all, Map<TypeChambre, List<ChambreDTO>> byType) {
+
+        List<ChambreDTO> rooms(TypeChambre type) {
+            return type == null ? all : byType.get(type);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hotel.sharding;
+
+import com.hotel.entity.Chambre;
+import com.hotel.entity.Client;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * JPA entity listener copying committed client and room changes to the other
+ * shards, so every shard can join a reservation with its client and room.
+ * A no-op unless sharding is enabled.
+ */
+@RequiredArgsConstructor
+public class ReferenceDataReplicator {
+
+    // Resolved lazily: all depend on the data source this listener is created with
+    private final ObjectProvider<ShardRouter> shardRouter;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Client client) {
+            replicate(new Statement("UPDATE clients SET nom = ?, prenom = ?, email = ?, telephone = ? WHERE id = ?",
+                    "INSERT INTO clients (nom, prenom, email, telephone, id) VALUES (?, ?, ?, ?, ?)",
+                    client.getNom(), client.getPrenom(), client.getEmail(), client.getTelephone(), client.getId()));
+        } else if (entity instanceof Chambre chambre) {
+            replicate(new Statement("UPDATE chambres SET type = ?, prix = ?, disponible = ? WHERE id = ?",
+                    "INSERT INTO chambres (type, prix, disponible, id) VALUES (?, ?, ?, ?)",
+                    chambre.getType().name(), chambre.getPrix(), chambre.getDisponible(), chambre.getId()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Client client) {
+            replicate(new Statement("DELETE FROM clients WHERE id = ?", null, client.getId()));
+        } else if (entity instanceof Chambre chambre) {
+            replicate(new Statement("DELETE FROM chambres WHERE id = ?", null, chambre.getId()));
+        }
+    }
+
+    private void replicate(Statement statement) {
+        ShardRouter router = shardRouter.getIfAvailable();
+        if (router == null) {
+            return;
+        }
+        int written = ShardContext.current();
+        Runnable replication = () -> {
+            JdbcTemplate jdbc = jdbcTemplate.getObject();
+            // A new transaction, as the committed one still holds its connection to the written shard
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager.getObject());
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            for (int shard = 0; shard < router.getShardCount(); shard++) {
+                if (shard != written) {
+                    router.run(shard, () -> transaction.executeWithoutResult(status -> {
+                        if (jdbc.update(statement.sql(), statement.arguments()) == 0 && statement.fallback() != null) {
+                            jdbc.update(statement.fallback(), statement.arguments());
+                        }
+                    }));
+                }
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            replication.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                replication.run();
+            }
+        });
+    }
+
+    /**
+     * Statement to run on every other shard, and the one to run instead where it changes no row
+     */
+    private record Statement(String sql, String fallback, Object... arguments) {
+    }
+}
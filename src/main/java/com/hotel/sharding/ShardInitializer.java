@@ -0,0 +1,66 @@
+package com.hotel.sharding;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Set;
+
+/**
+ * Prepares the shards at startup, before any data is loaded: creates the
+ * schema on every shard but shard 0 (which Hibernate sets up as usual), gives
+ * each shard's reservation sequence its own ID range, and loads the bucket map.
+ * <p>
+ * The schema is only generated when spring.jpa.hibernate.ddl-auto creates it
+ * on shard 0 too; otherwise it is expected in place on every shard.
+ */
+@Slf4j
+public class ShardInitializer implements InitializingBean {
+
+    /**
+     * IDs drawn on shard k start at k * ID_RANGE, so IDs are unique across
+     * shards. A reservation keeps its ID when moved, so the ID does not tell
+     * its shard.
+     */
+    static final long ID_RANGE = 1L << 40;
+    // Matches the allocationSize of Reservation's pooled sequence generator
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+    private static final Set<String> SCHEMA_CREATING_MODES = Set.of("create", "create-drop");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter router;
+    private final ShardMigrator migrator;
+    private final String ddlAuto;
+
+    public ShardInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+            ShardRouter router, ShardMigrator migrator, String ddlAuto) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.router = router;
+        this.migrator = migrator;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (SCHEMA_CREATING_MODES.contains(ddlAuto)) {
+            SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < router.getShardCount(); shard++) {
+                long firstId = shard * ID_RANGE;
+                router.run(shard, () -> {
+                    schemaManager.dropMappedObjects(true);
+                    schemaManager.exportMappedObjects(true);
+                    // Hibernate hands out IDs below each fetched sequence value, so skip one block
+                    jdbcTemplate.execute("ALTER SEQUENCE reservations_seq RESTART WITH "
+                            + (firstId + SEQUENCE_ALLOCATION_SIZE + 1));
+                });
+            }
+        }
+        migrator.loadBucketMap();
+        log.info("Reservations sharded by room over {} shards", router.getShardCount());
+    }
+}
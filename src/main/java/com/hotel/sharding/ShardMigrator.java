@@ -0,0 +1,182 @@
+package com.hotel.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the bucket map on shard 0 and moves reservations between shards.
+ * <p>
+ * A bucket move copies its rows to the target shard, hands the bucket over,
+ * then deletes the rows from the source, all while holding the bucket
+ * exclusively. Every row is on at least one shard throughout; listings may
+ * see it twice meanwhile and drop the duplicate. A move interrupted halfway
+ * leaves rows on both shards, and the next move of that bucket starts by
+ * clearing the target.
+ */
+@Slf4j
+public class ShardMigrator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String COLUMNS = "id, client_id, chambre_id, date_debut, date_fin, preferences, version";
+    private static final String BUCKET_CONDITION = "MOD(chambre_id, " + ShardRouter.BUCKETS + ") = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter router;
+
+    public ShardMigrator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            ShardRouter router) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.router = router;
+    }
+
+    /**
+     * Load the bucket map from shard 0, storing the default placement
+     * (bucket mod shard count) for buckets it does not have yet
+     */
+    public void loadBucketMap() {
+        router.run(0, () -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_buckets "
+                    + "(bucket INT PRIMARY KEY, shard INT NOT NULL)");
+            Map<Integer, Integer> stored = new HashMap<>();
+            jdbcTemplate.query("SELECT bucket, shard FROM shard_buckets", rs -> {
+                stored.put(rs.getInt(1), rs.getInt(2));
+            });
+            List<Object[]> missing = new ArrayList<>();
+            for (int bucket = 0; bucket < ShardRouter.BUCKETS; bucket++) {
+                Integer shard = stored.get(bucket);
+                if (shard == null) {
+                    missing.add(new Object[] {bucket, router.ownerOf(bucket)});
+                } else if (shard >= router.getShardCount()) {
+                    throw new IllegalStateException("Bucket " + bucket + " is on shard " + shard + " but only "
+                            + router.getShardCount() + " shards are configured: rebalance onto fewer shards "
+                            + "before removing one");
+                } else {
+                    router.assign(bucket, shard);
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO shard_buckets (bucket, shard) VALUES (?, ?)", missing);
+        });
+    }
+
+    /**
+     * Spread the buckets evenly over shards 0 to shards - 1, moving as few as
+     * possible: after adding a shard, or to drain the last ones before
+     * removing them
+     */
+    public synchronized Rebalance rebalance(int shards) {
+        if (shards < 1 || shards > router.getShardCount()) {
+            throw new IllegalArgumentException("Shards must be between 1 and " + router.getShardCount());
+        }
+        long start = System.nanoTime();
+        int[] kept = new int[shards];
+        List<Integer> toMove = new ArrayList<>();
+        for (int bucket = 0; bucket < ShardRouter.BUCKETS; bucket++) {
+            int owner = router.ownerOf(bucket);
+            if (owner < shards && kept[owner] < quota(owner, shards)) {
+                kept[owner]++;
+            } else {
+                toMove.add(bucket);
+            }
+        }
+        long movedReservations = 0;
+        int target = 0;
+        for (int bucket : toMove) {
+            while (kept[target] >= quota(target, shards)) {
+                target++;
+            }
+            movedReservations += moveBucket(bucket, target);
+            kept[target]++;
+        }
+        Rebalance result = new Rebalance(shards, toMove.size(), movedReservations,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Rebalanced onto {} shards: moved {} buckets with {} reservations in {} ms",
+                shards, result.movedBuckets(), movedReservations, result.millis());
+        return result;
+    }
+
+    /**
+     * Move a bucket and its reservations to another shard
+     *
+     * @return the number of reservations moved
+     */
+    public long moveBucket(int bucket, int target) {
+        try (ShardRouter.BucketLocks locks = router.lockBuckets(true, bucket)) {
+            int source = router.ownerOf(bucket);
+            if (source == target) {
+                return 0;
+            }
+            int moved = copy(source, target, BUCKET_CONDITION, bucket);
+            router.run(0, () -> jdbcTemplate.update("UPDATE shard_buckets SET shard = ? WHERE bucket = ?",
+                    target, bucket));
+            router.assign(bucket, target);
+            router.run(source, () -> jdbcTemplate.update("DELETE FROM reservations WHERE " + BUCKET_CONDITION,
+                    bucket));
+            log.debug("Moved bucket {} with {} reservations from shard {} to shard {}", bucket, moved,
+                    source, target);
+            return moved;
+        }
+    }
+
+    /**
+     * Move one reservation to another shard. The caller holds the buckets of
+     * its room exclusively.
+     */
+    public void moveReservation(long id, int source, int target) {
+        copy(source, target, "id = ?", id);
+        router.run(source, () -> jdbcTemplate.update("DELETE FROM reservations WHERE id = ?", id));
+    }
+
+    private int copy(int source, int target, String condition, Object argument) {
+        List<Row> rows = router.call(source, () -> jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM reservations WHERE " + condition,
+                (rs, i) -> new Row(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getObject(4, LocalDate.class), rs.getObject(5, LocalDate.class), rs.getString(6),
+                        rs.getLong(7)),
+                argument));
+        router.run(target, () -> transactionTemplate.executeWithoutResult(status -> {
+            // Leftovers of an interrupted move
+            jdbcTemplate.update("DELETE FROM reservations WHERE " + condition, argument);
+            jdbcTemplate.batchUpdate("INSERT INTO reservations (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    rows, BATCH_SIZE, (ps, row) -> {
+                        ps.setLong(1, row.id());
+                        ps.setLong(2, row.clientId());
+                        ps.setLong(3, row.chambreId());
+                        ps.setObject(4, row.dateDebut());
+                        ps.setObject(5, row.dateFin());
+                        if (row.preferences() == null) {
+                            ps.setNull(6, Types.VARCHAR);
+                        } else {
+                            ps.setString(6, row.preferences());
+                        }
+                        ps.setLong(7, row.version());
+                    });
+        }));
+        return rows.size();
+    }
+
+    private static int quota(int shard, int shards) {
+        return ShardRouter.BUCKETS / shards + (shard < ShardRouter.BUCKETS % shards ? 1 : 0);
+    }
+
+    private record Row(long id, long clientId, long chambreId, LocalDate dateDebut, LocalDate dateFin,
+            String preferences, long version) {
+    }
+
+    /**
+     * Outcome of a rebalancing
+     */
+    public record Rebalance(int shards, int movedBuckets, long movedReservations, long millis) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.hotel.sharding;
+
+import com.hotel.exception.BusinessException;
+import com.hotel.metrics.ProtocolContext;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Places rooms on shards and runs work on them.
+ * <p>
+ * Rooms are hashed into a fixed number of buckets (chambre_id mod 1024), each
+ * owned by one shard. The bucket map, rather than the shard count, places a
+ * room, so rebalancing moves whole buckets and leaves every other room where
+ * it is. Writes hold the buckets of their rooms shared while they run; moving
+ * a bucket holds it exclusively.
+ */
+public class ShardRouter implements DisposableBean {
+
+    public static final int BUCKETS = 1024;
+
+    private final int shardCount;
+    private final Executor executor;
+    private final long lockTimeoutMillis;
+    private final AtomicIntegerArray owners = new AtomicIntegerArray(BUCKETS);
+    private final ReentrantReadWriteLock[] bucketLocks = new ReentrantReadWriteLock[BUCKETS];
+
+    public ShardRouter(int shardCount, Executor executor, long lockTimeoutMillis) {
+        this.shardCount = shardCount;
+        this.executor = executor;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            owners.set(bucket, bucket % shardCount);
+            bucketLocks[bucket] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public static int bucketOf(long chambreId) {
+        return (int) Math.floorMod(chambreId, (long) BUCKETS);
+    }
+
+    /**
+     * Shard holding the reservations of a room, shard 0 for a missing room ID
+     */
+    public int shardOf(Long chambreId) {
+        return chambreId != null ? owners.get(bucketOf(chambreId)) : 0;
+    }
+
+    public int ownerOf(int bucket) {
+        return owners.get(bucket);
+    }
+
+    void assign(int bucket, int shard) {
+        owners.set(bucket, shard);
+    }
+
+    /**
+     * Run work with its database access routed to a shard
+     */
+    public <T> T call(int shard, Supplier<T> work) {
+        try (ShardContext.Scope scope = ShardContext.enter(shard)) {
+            return work.get();
+        }
+    }
+
+    public void run(int shard, Runnable work) {
+        try (ShardContext.Scope scope = ShardContext.enter(shard)) {
+            work.run();
+        }
+    }
+
+    /**
+     * Run work on every shard in parallel
+     *
+     * @return the results in shard order
+     */
+    public <T> List<T> gather(IntFunction<T> work) {
+        return gather(IntStream.range(0, shardCount).toArray(), work);
+    }
+
+    /**
+     * Run work on the given shards in parallel, each on a pool thread with its
+     * own transactions, and wait for all of them. The first failure is rethrown.
+     *
+     * @return the results in the order of the shards given
+     */
+    public <T> List<T> gather(int[] shards, IntFunction<T> work) {
+        if (shards.length == 1) {
+            return Collections.singletonList(call(shards[0], () -> work.apply(shards[0])));
+        }
+        String protocol = ProtocolContext.current();
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.length);
+        for (int shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try (ProtocolContext.Scope scope = ProtocolContext.enter(protocol)) {
+                    return call(shard, () -> work.apply(shard));
+                }
+            }, executor));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Shard query failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Hold the buckets of the given rooms until the returned handle is closed.
+     * Buckets are always taken in ascending order to rule out deadlocks.
+     *
+     * @param exclusive  whether to keep out every other writer, as when moving rows between shards
+     * @param chambreIds the rooms, null entries are ignored
+     */
+    public BucketLocks lockRooms(boolean exclusive, Long... chambreIds) {
+        return lockBuckets(exclusive, Arrays.stream(chambreIds)
+                .filter(Objects::nonNull)
+                .mapToInt(ShardRouter::bucketOf)
+                .toArray());
+    }
+
+    BucketLocks lockBuckets(boolean exclusive, int... buckets) {
+        int[] ordered = Arrays.stream(buckets).distinct().sorted().toArray();
+        List<Lock> acquired = new ArrayList<>(ordered.length);
+        try {
+            for (int bucket : ordered) {
+                Lock lock = exclusive ? bucketLocks[bucket].writeLock() : bucketLocks[bucket].readLock();
+                if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new BusinessException("Room is busy, please retry");
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(acquired);
+            throw new BusinessException("Interrupted while waiting for room lock", e);
+        } catch (RuntimeException e) {
+            unlock(acquired);
+            throw e;
+        }
+        return () -> unlock(acquired);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private static void unlock(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface BucketLocks extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
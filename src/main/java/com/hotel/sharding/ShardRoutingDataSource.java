@@ -0,0 +1,62 @@
+package com.hotel.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes connections to the shard selected by {@link ShardContext}.
+ * <p>
+ * A transaction must be routed by the shard in scope when it first runs a
+ * statement, not when it begins: wrap this data source in a
+ * LazyConnectionDataSourceProxy so connections are fetched at first use.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<DataSource> shards;
+    private final Counter[] routed;
+
+    public ShardRoutingDataSource(List<DataSource> shards, MeterRegistry registry) {
+        this.shards = List.copyOf(shards);
+        this.routed = new Counter[shards.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+            routed[shard] = Counter.builder("hotel.datasource.routed")
+                    .description("Connections handed out, by target database")
+                    .tag("target", "shard-" + shard)
+                    .register(registry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.current();
+        routed[shard].increment();
+        return shard;
+    }
+
+    @Override
+    public void destroy() {
+        for (DataSource shard : shards) {
+            if (shard instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
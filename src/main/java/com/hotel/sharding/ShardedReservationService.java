@@ -0,0 +1,356 @@
+package com.hotel.sharding;
+
+import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationFields;
+import com.hotel.dto.ReservationFieldsPage;
+import com.hotel.dto.ReservationFilter;
+import com.hotel.dto.ReservationPage;
+import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.exception.BusinessException;
+import com.hotel.exception.ResourceNotFoundException;
+import com.hotel.service.ReservationFetch;
+import com.hotel.service.ReservationService;
+import com.hotel.service.RoomAvailabilityIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ReservationService over reservations sharded by room. A call about one room
+ * runs the regular service on the shard owning it, so a booking and its
+ * overlap check touch a single database; listings run it on every shard in
+ * parallel and merge the results by ID.
+ * <p>
+ * A batch spanning several shards commits on each of them separately; if one
+ * part fails, the parts already committed are deleted before the error is
+ * returned. Moving a reservation to a room on another shard copies it there
+ * first, then updates it.
+ */
+@Slf4j
+public class ShardedReservationService implements ReservationService {
+
+    private final ReservationService delegate;
+    private final ShardRouter router;
+    private final ShardMigrator migrator;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+
+    public ShardedReservationService(ReservationService delegate, ShardRouter router, ShardMigrator migrator,
+            RoomAvailabilityIndex availabilityIndex, int defaultPageSize, int maxPageSize, int maxBatchSize) {
+        this.delegate = delegate;
+        this.router = router;
+        this.migrator = migrator;
+        this.availabilityIndex = availabilityIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public ReservationDTO createReservation(ReservationRequestDTO request) {
+        try (ShardRouter.BucketLocks locks = router.lockRooms(false, request.getChambreId())) {
+            return router.call(router.shardOf(request.getChambreId()), () -> delegate.createReservation(request));
+        }
+    }
+
+    @Override
+    public List<ReservationDTO> createReservations(List<ReservationRequestDTO> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new BusinessException("Batch size must not exceed " + maxBatchSize);
+        }
+        // Checked here so item numbers refer to the whole batch
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequestDTO request = requests.get(i);
+            if (request.getDateDebut().isAfter(request.getDateFin())) {
+                throw new BusinessException("Item " + i + ": Start date must be before end date");
+            }
+        }
+
+        Long[] rooms = requests.stream().map(ReservationRequestDTO::getChambreId).distinct().toArray(Long[]::new);
+        try (ShardRouter.BucketLocks locks = router.lockRooms(false, rooms)) {
+            Map<Integer, List<Integer>> itemsByShard = new TreeMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                itemsByShard.computeIfAbsent(router.shardOf(requests.get(i).getChambreId()),
+                        shard -> new ArrayList<>()).add(i);
+            }
+            if (itemsByShard.size() <= 1) {
+                int shard = itemsByShard.isEmpty() ? 0 : itemsByShard.keySet().iterator().next();
+                return router.call(shard, () -> delegate.createReservations(requests));
+            }
+
+            int[] shards = itemsByShard.keySet().stream().mapToInt(Integer::intValue).toArray();
+            List<BatchPart> parts = router.gather(shards, shard -> {
+                List<ReservationRequestDTO> part = itemsByShard.get(shard).stream()
+                        .map(requests::get)
+                        .collect(Collectors.toList());
+                try {
+                    return new BatchPart(shard, delegate.createReservations(part), null);
+                } catch (RuntimeException e) {
+                    return new BatchPart(shard, List.of(), e);
+                }
+            });
+
+            Optional<RuntimeException> failure = parts.stream()
+                    .map(BatchPart::failure)
+                    .filter(Objects::nonNull)
+                    .findFirst();
+            if (failure.isPresent()) {
+                undo(parts);
+                throw failure.get();
+            }
+            ReservationDTO[] created = new ReservationDTO[requests.size()];
+            for (BatchPart part : parts) {
+                List<Integer> items = itemsByShard.get(part.shard());
+                for (int i = 0; i < items.size(); i++) {
+                    created[items.get(i)] = part.created().get(i);
+                }
+            }
+            return Arrays.asList(created);
+        }
+    }
+
+    @Override
+    public ReservationDTO getReservationById(Long id) {
+        Long chambreId = availabilityIndex.chambreOf(id);
+        if (chambreId != null) {
+            try {
+                return router.call(router.shardOf(chambreId), () -> delegate.getReservationById(id));
+            } catch (ResourceNotFoundException e) {
+                // Moved or deleted since it was indexed: look on every shard
+            }
+        }
+        return find(id, ReservationFetch.DETAILS).orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+    }
+
+    @Override
+    public ReservationDTO getReservationById(Long id, ReservationFetch fetch) {
+        Long chambreId = availabilityIndex.chambreOf(id);
+        if (chambreId != null) {
+            try {
+                return router.call(router.shardOf(chambreId), () -> delegate.getReservationById(id, fetch));
+            } catch (ResourceNotFoundException e) {
+                // Moved or deleted since it was indexed: look on every shard
+            }
+        }
+        return find(id, fetch).orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+    }
+
+    @Override
+    public ReservationDTO updateReservation(Long id, ReservationRequestDTO request) {
+        return updateReservation(id, request, null);
+    }
+
+    @Override
+    public ReservationDTO updateReservation(Long id, ReservationRequestDTO request, Long expectedVersion) {
+        Long currentRoom = roomOf(id);
+        Long targetRoom = request.getChambreId();
+        try (ShardRouter.BucketLocks locks = router.lockRooms(false, currentRoom, targetRoom)) {
+            int shard = router.shardOf(currentRoom);
+            if (shard == router.shardOf(targetRoom)) {
+                return router.call(shard, () -> delegate.updateReservation(id, request, expectedVersion));
+            }
+        }
+
+        // The reservation changes shard: keep out every other writer of both rooms while it moves
+        try (ShardRouter.BucketLocks locks = router.lockRooms(true, currentRoom, targetRoom)) {
+            int source = router.shardOf(currentRoom);
+            int target = router.shardOf(targetRoom);
+            if (source == target) {
+                return router.call(source, () -> delegate.updateReservation(id, request, expectedVersion));
+            }
+            log.debug("Moving reservation {} from shard {} to shard {}", id, source, target);
+            migrator.moveReservation(id, source, target);
+            try {
+                return router.call(target, () -> delegate.updateReservation(id, request, expectedVersion));
+            } catch (RuntimeException e) {
+                migrator.moveReservation(id, target, source);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteReservation(Long id) {
+        Long chambreId = roomOf(id);
+        try (ShardRouter.BucketLocks locks = router.lockRooms(false, chambreId)) {
+            return router.call(router.shardOf(chambreId), () -> delegate.deleteReservation(id));
+        }
+    }
+
+    @Override
+    public List<ReservationDTO> getAllReservations() {
+        return getAllReservations(ReservationFetch.DETAILS);
+    }
+
+    @Override
+    public List<ReservationDTO> getAllReservations(ReservationFetch fetch) {
+        return mergeById(router.gather(shard -> delegate.getAllReservations(fetch)));
+    }
+
+    @Override
+    public List<ReservationDTO> getReservationsByClient(Long clientId) {
+        return getReservationsByClient(clientId, ReservationFetch.DETAILS);
+    }
+
+    @Override
+    public List<ReservationDTO> getReservationsByClient(Long clientId, ReservationFetch fetch) {
+        return mergeById(router.gather(shard -> delegate.getReservationsByClient(clientId, fetch)));
+    }
+
+    @Override
+    public ReservationPage getReservations(Long after, Integer limit) {
+        return getReservations(after, limit, ReservationFetch.DETAILS);
+    }
+
+    @Override
+    public ReservationPage getReservations(Long after, Integer limit, ReservationFetch fetch) {
+        int pageSize = pageSize(limit);
+        return mergePages(router.gather(shard -> delegate.getReservations(after, pageSize, fetch)), pageSize);
+    }
+
+    @Override
+    public ReservationPage getReservationsByClient(Long clientId, Long after, Integer limit) {
+        return getReservationsByClient(clientId, after, limit, ReservationFetch.DETAILS);
+    }
+
+    @Override
+    public ReservationPage getReservationsByClient(Long clientId, Long after, Integer limit,
+            ReservationFetch fetch) {
+        int pageSize = pageSize(limit);
+        return mergePages(router.gather(shard -> delegate.getReservationsByClient(clientId, after, pageSize, fetch)),
+                pageSize);
+    }
+
+    @Override
+    public ReservationPage searchReservations(ReservationFilter filter, Long after, Integer limit) {
+        int pageSize = pageSize(limit);
+        if (filter.getChambreId() != null) {
+            return router.call(router.shardOf(filter.getChambreId()),
+                    () -> delegate.searchReservations(filter, after, pageSize));
+        }
+        return mergePages(router.gather(shard -> delegate.searchReservations(filter, after, pageSize)), pageSize);
+    }
+
+    @Override
+    public ReservationFieldsPage getReservationFields(ReservationFields fields, ReservationFilter filter,
+            Long after, Integer limit) {
+        int pageSize = pageSize(limit);
+        if (filter.getChambreId() != null) {
+            return router.call(router.shardOf(filter.getChambreId()),
+                    () -> delegate.getReservationFields(fields, filter, after, pageSize));
+        }
+        List<ReservationFieldsPage> pages = router.gather(
+                shard -> delegate.getReservationFields(fields, filter, after, pageSize));
+        TreeMap<Long, Map<String, Object>> byId = new TreeMap<>();
+        pages.forEach(page -> page.getItems().forEach(item -> byId.putIfAbsent((Long) item.get("id"), item)));
+        List<Map<String, Object>> items = byId.values().stream().limit(pageSize).collect(Collectors.toList());
+        return ReservationFieldsPage.builder()
+                .items(items)
+                .hasNext(pages.stream().anyMatch(ReservationFieldsPage::isHasNext) || byId.size() > pageSize)
+                .nextAfter(items.isEmpty() ? null : (Long) items.get(items.size() - 1).get("id"))
+                .build();
+    }
+
+    /**
+     * Streams merged pages rather than one cursor per shard, so no shard
+     * holds a connection for the whole stream
+     */
+    @Override
+    public void streamReservations(Long after, Consumer<ReservationDTO> consumer) {
+        Long cursor = after;
+        ReservationPage page;
+        do {
+            page = getReservations(cursor, maxPageSize, ReservationFetch.DETAILS);
+            page.getItems().forEach(consumer);
+            cursor = page.getNextAfter();
+        } while (page.isHasNext());
+    }
+
+    /**
+     * Room of a reservation, from the availability index or else by looking on every shard
+     */
+    private Long roomOf(Long id) {
+        Long chambreId = availabilityIndex.chambreOf(id);
+        if (chambreId != null) {
+            return chambreId;
+        }
+        return find(id, ReservationFetch.REFERENCES)
+                .map(reservation -> reservation.getChambre().getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation", id));
+    }
+
+    private Optional<ReservationDTO> find(Long id, ReservationFetch fetch) {
+        return router.gather(shard -> {
+                    try {
+                        return delegate.getReservationById(id, fetch);
+                    } catch (ResourceNotFoundException e) {
+                        return null;
+                    }
+                }).stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Delete the reservations of a batch committed on some shards after it failed on another
+     */
+    private void undo(List<BatchPart> parts) {
+        for (BatchPart part : parts) {
+            if (part.created().isEmpty()) {
+                continue;
+            }
+            log.warn("Batch failed on another shard, deleting the {} reservations created on shard {}",
+                    part.created().size(), part.shard());
+            router.run(part.shard(), () -> part.created()
+                    .forEach(reservation -> delegate.deleteReservation(reservation.getId())));
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BusinessException("Limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Merge listings ordered by ID, dropping the copy of a row seen on two
+     * shards while its bucket moves
+     */
+    private static List<ReservationDTO> mergeById(List<List<ReservationDTO>> results) {
+        TreeMap<Long, ReservationDTO> byId = new TreeMap<>();
+        results.forEach(result -> result.forEach(item -> byId.putIfAbsent(item.getId(), item)));
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Merge one page per shard, each holding the first rows of that shard
+     * after the cursor, into the first page overall
+     */
+    private static ReservationPage mergePages(List<ReservationPage> pages, int pageSize) {
+        List<ReservationDTO> merged = mergeById(pages.stream().map(ReservationPage::getItems).toList());
+        boolean shardHasNext = pages.stream().anyMatch(ReservationPage::isHasNext);
+        List<ReservationDTO> items = new ArrayList<>(merged.subList(0, Math.min(pageSize, merged.size())));
+        return ReservationPage.builder()
+                .items(items)
+                .hasNext(shardHasNext || merged.size() > pageSize)
+                .nextAfter(items.isEmpty() ? null : items.get(items.size() - 1).getId())
+                .build();
+    }
+
+    private record BatchPart(int shard, List<ReservationDTO> created, RuntimeException failure) {
+    }
+}
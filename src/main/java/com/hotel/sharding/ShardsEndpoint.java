@@ -0,0 +1,52 @@
+package com.hotel.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Actuator endpoint for the shards: GET /actuator/shards shows the buckets
+ * and reservations per shard, POST /actuator/shards rebalances the buckets
+ * evenly over the first "shards" shards (all of them by default).
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardRouter router;
+    private final ShardMigrator migrator;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShardsEndpoint(ShardRouter router, ShardMigrator migrator, JdbcTemplate jdbcTemplate) {
+        this.router = router;
+        this.migrator = migrator;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @ReadOperation
+    public List<ShardStatus> shards() {
+        int[] buckets = new int[router.getShardCount()];
+        for (int bucket = 0; bucket < ShardRouter.BUCKETS; bucket++) {
+            buckets[router.ownerOf(bucket)]++;
+        }
+        List<Long> reservations = router.gather(shard ->
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Long.class));
+        List<ShardStatus> statuses = new ArrayList<>();
+        for (int shard = 0; shard < buckets.length; shard++) {
+            statuses.add(new ShardStatus(shard, buckets[shard], reservations.get(shard)));
+        }
+        return statuses;
+    }
+
+    @WriteOperation
+    public ShardMigrator.Rebalance rebalance(@Nullable Integer shards) {
+        return migrator.rebalance(shards != null ? shards : router.getShardCount());
+    }
+
+    public record ShardStatus(int shard, int buckets, long reservations) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.hotel.soap;
+
+import com.hotel.exception.OverloadedException;
+import org.apache.cxf.binding.soap.Soap11;
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+
+import javax.xml.namespace.QName;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Out fault interceptor turning calls shed by admission control into a
+ * Server fault refined as Overloaded or RateLimited (soap:Server.Overloaded
+ * in SOAP 1.1, a soap:Receiver subcode in SOAP 1.2) with a Retry-After header
+ */
+public class OverloadedFaultInterceptor extends AbstractSoapInterceptor {
+
+    public static final String NAMESPACE = "http://soap.hotel.com/";
+
+    public OverloadedFaultInterceptor() {
+        super(Phase.PREPARE_SEND);
+    }
+
+    @Override
+    public void handleMessage(SoapMessage message) throws Fault {
+        OverloadedException overloaded = overloadedCause(message.getContent(Exception.class));
+        if (overloaded == null) {
+            return;
+        }
+        QName receiver = message.getVersion().getReceiver();
+        String subCode = overloaded.isRateLimited() ? "RateLimited" : "Overloaded";
+        SoapFault fault;
+        if (message.getVersion() instanceof Soap11) {
+            // SOAP 1.1 has no subcodes, its fault codes are refined with dots
+            fault = new SoapFault(overloaded.getMessage(), overloaded,
+                    new QName(receiver.getNamespaceURI(), receiver.getLocalPart() + "." + subCode));
+        } else {
+            fault = new SoapFault(overloaded.getMessage(), overloaded, receiver);
+            fault.setSubCode(new QName(NAMESPACE, subCode));
+        }
+        message.setContent(Exception.class, fault);
+
+        Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+        if (headers == null) {
+            headers = new HashMap<>();
+            message.put(Message.PROTOCOL_HEADERS, headers);
+        }
+        headers.put("Retry-After", List.of(String.valueOf(overloaded.getRetryAfterSeconds())));
+    }
+
+    private static OverloadedException overloadedCause(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OverloadedException overloaded) {
+                return overloaded;
+            }
+        }
+        return null;
+    }
+}
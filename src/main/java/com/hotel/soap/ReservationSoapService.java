@@ -5,6 +5,8 @@ import jakarta.jws.WebParam;
 import jakarta.jws.WebResult;
 import jakarta.jws.WebService;
 
+import java.util.List;
+
 /**
  * SOAP Web Service interface for Reservation operations
  */
@@ -37,4 +39,12 @@ public interface ReservationSoapService {
     @WebMethod(operationName = "deleteReservation")
     @WebResult(name = "success")
     boolean deleteReservation(@WebParam(name = "id") Long id);
+
+    @WebMethod(operationName = "searchAvailableRooms")
+    @WebResult(name = "chambre")
+    List<ChambreSoapDTO> searchAvailableRooms(
+            @WebParam(name = "type") String type,
+            @WebParam(name = "dateDebut") String dateDebut,
+            @WebParam(name = "dateFin") String dateFin,
+            @WebParam(name = "maxPrix") String maxPrix);
 }
@@ -1,18 +1,24 @@
 package com.hotel.soap;
 
+import com.hotel.dto.ChambreDTO;
 import com.hotel.dto.ReservationDTO;
 import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.entity.TypeChambre;
+import com.hotel.service.ChambreService;
 import com.hotel.service.ReservationService;
 import jakarta.jws.WebService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * SOAP Web Service implementation for Reservation operations.
- * Delegates to the shared ReservationService.
+ * Delegates to the shared ReservationService and ChambreService.
  */
 @WebService(serviceName = "ReservationSoapService", portName = "ReservationSoapPort", targetNamespace = "http://soap.hotel.com/", endpointInterface = "com.hotel.soap.ReservationSoapService")
 @Service
@@ -21,6 +27,7 @@ import java.time.LocalDate;
 public class ReservationSoapServiceImpl implements ReservationSoapService {
 
     private final ReservationService reservationService;
+    private final ChambreService chambreService;
 
     @Override
     public ReservationSoapDTO createReservation(Long clientId, Long chambreId,
@@ -69,10 +76,25 @@ public class ReservationSoapServiceImpl implements ReservationSoapService {
         return reservationService.deleteReservation(id);
     }
 
+    @Override
+    public List<ChambreSoapDTO> searchAvailableRooms(String type, String dateDebut, String dateFin,
+            String maxPrix) {
+        log.info("SOAP: Searching {} rooms free from {} to {}", type, dateDebut, dateFin);
+
+        List<ChambreDTO> result = chambreService.searchAvailableRooms(
+                type != null && !type.isBlank() ? TypeChambre.valueOf(type) : null,
+                LocalDate.parse(dateDebut),
+                LocalDate.parse(dateFin),
+                maxPrix != null && !maxPrix.isBlank() ? new BigDecimal(maxPrix) : null);
+        return result.stream()
+                .map(ReservationSoapServiceImpl::convertToSoapDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Convert ReservationDTO to SOAP-specific DTO
      */
-    private ReservationSoapDTO convertToSoapDTO(ReservationDTO dto) {
+    static ReservationSoapDTO convertToSoapDTO(ReservationDTO dto) {
         ReservationSoapDTO soapDTO = new ReservationSoapDTO();
         soapDTO.setId(dto.getId());
         soapDTO.setDateDebut(dto.getDateDebut().toString());
@@ -90,14 +112,21 @@ public class ReservationSoapServiceImpl implements ReservationSoapService {
         }
 
         if (dto.getChambre() != null) {
-            ChambreSoapDTO chambreSoap = new ChambreSoapDTO();
-            chambreSoap.setId(dto.getChambre().getId());
-            chambreSoap.setType(dto.getChambre().getType().name());
-            chambreSoap.setPrix(dto.getChambre().getPrix().toString());
-            chambreSoap.setDisponible(dto.getChambre().getDisponible());
-            soapDTO.setChambre(chambreSoap);
+            soapDTO.setChambre(convertToSoapDTO(dto.getChambre()));
         }
 
         return soapDTO;
     }
+
+    /**
+     * Convert ChambreDTO to SOAP-specific DTO
+     */
+    static ChambreSoapDTO convertToSoapDTO(ChambreDTO dto) {
+        ChambreSoapDTO chambreSoap = new ChambreSoapDTO();
+        chambreSoap.setId(dto.getId());
+        chambreSoap.setType(dto.getType().name());
+        chambreSoap.setPrix(dto.getPrix().toString());
+        chambreSoap.setDisponible(dto.getDisponible());
+        return chambreSoap;
+    }
 }
@@ -0,0 +1,140 @@
+package com.hotel.service;
+
+import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.entity.Chambre;
+import com.hotel.entity.Client;
+import com.hotel.entity.Reservation;
+import com.hotel.exception.BusinessException;
+import com.hotel.repository.ChambreRepository;
+import com.hotel.repository.ClientRepository;
+import com.hotel.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a few rooms with conflicting creates and same-room date changes
+ * from many threads, then checks that no two bookings of a room overlap
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationBookingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 4000;
+    private static final int ROOMS = 3;
+    private static final LocalDate FIRST_DATE = LocalDate.of(3000, 1, 1);
+    private static final int DAYS = 60;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ChambreRepository chambreRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Test
+    void concurrentCreatesAndUpdatesNeverDoubleBookARoom() throws Exception {
+        List<Long> rooms = chambreRepository.findAll().stream().limit(ROOMS).map(Chambre::getId).toList();
+        List<Long> clients = clientRepository.findAll().stream().map(Client::getId).toList();
+        assertThat(rooms).hasSize(ROOMS);
+
+        List<ReservationDTO> booked = new CopyOnWriteArrayList<>();
+        AtomicInteger creates = new AtomicInteger();
+        AtomicInteger updates = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(OPERATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (remaining.getAndDecrement() > 0) {
+                        LocalDate dateDebut = FIRST_DATE.plusDays(random.nextInt(DAYS));
+                        LocalDate dateFin = dateDebut.plusDays(1 + random.nextInt(4));
+                        try {
+                            if (booked.isEmpty() || random.nextBoolean()) {
+                                booked.add(reservationService.createReservation(request(
+                                        clients.get(random.nextInt(clients.size())),
+                                        rooms.get(random.nextInt(ROOMS)), dateDebut, dateFin)));
+                                creates.incrementAndGet();
+                            } else {
+                                // New dates in the same room
+                                ReservationDTO reservation = booked.get(random.nextInt(booked.size()));
+                                reservationService.updateReservation(reservation.getId(), request(
+                                        reservation.getClient().getId(), reservation.getChambre().getId(),
+                                        dateDebut, dateFin));
+                                updates.incrementAndGet();
+                            }
+                        } catch (BusinessException | OptimisticLockingFailureException e) {
+                            refused.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(creates.get()).isPositive();
+        assertThat(updates.get()).isPositive();
+        assertThat(refused.get()).isPositive();
+
+        Map<Long, List<Reservation>> byRoom = reservationRepository.findAll().stream()
+                .filter(r -> rooms.contains(r.getChambre().getId()) && !r.getDateDebut().isBefore(FIRST_DATE))
+                .collect(Collectors.groupingBy(r -> r.getChambre().getId()));
+        for (List<Reservation> reservations : byRoom.values()) {
+            reservations.sort(Comparator.comparing(Reservation::getDateDebut));
+            for (int i = 1; i < reservations.size(); i++) {
+                Reservation previous = reservations.get(i - 1);
+                Reservation next = reservations.get(i);
+                assertThat(next.getDateDebut())
+                        .as("reservation %d overlaps reservation %d", next.getId(), previous.getId())
+                        .isAfter(previous.getDateFin());
+            }
+        }
+    }
+
+    private static ReservationRequestDTO request(Long clientId, Long chambreId, LocalDate dateDebut,
+            LocalDate dateFin) {
+        return ReservationRequestDTO.builder()
+                .clientId(clientId)
+                .chambreId(chambreId)
+                .dateDebut(dateDebut)
+                .dateFin(dateFin)
+                .build();
+    }
+}
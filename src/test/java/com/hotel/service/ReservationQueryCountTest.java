@@ -0,0 +1,156 @@
+package com.hotel.service;
+
+import com.hotel.dto.ReservationDTO;
+import com.hotel.dto.ReservationRequestDTO;
+import com.hotel.entity.Chambre;
+import com.hotel.entity.Client;
+import com.hotel.repository.ChambreRepository;
+import com.hotel.repository.ClientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the listing queries against N+1 selects: each call must issue at
+ * most a fixed number of statements whatever the number of reservations,
+ * counted by Hibernate statistics (enabled in the test profile)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationQueryCountTest {
+
+    private static final int RESERVATIONS = 40;
+    private static final LocalDate FIRST_DATE = LocalDate.of(3500, 1, 1);
+
+    /** One select, joining client and chambre or reading only their IDs */
+    private static final long MAX_LIST_STATEMENTS = 1;
+    /** One select for the page, joining client and chambre or reading only their IDs */
+    private static final long MAX_PAGE_STATEMENTS = 1;
+    /** One select by ID, joining client and chambre or reading only their IDs */
+    private static final long MAX_BY_ID_STATEMENTS = 1;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ChambreRepository chambreRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+    private Long clientId;
+    private Long reservationId;
+
+    @BeforeAll
+    void createReservations() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> clients = clientRepository.findAll().stream().map(Client::getId).toList();
+        List<Long> rooms = chambreRepository.findByDisponibleTrue().stream().map(Chambre::getId).toList();
+        List<ReservationRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            LocalDate dateDebut = FIRST_DATE.plusDays(3L * i);
+            requests.add(ReservationRequestDTO.builder()
+                    .clientId(clients.get(i % clients.size()))
+                    .chambreId(rooms.get(i % rooms.size()))
+                    .dateDebut(dateDebut)
+                    .dateFin(dateDebut.plusDays(1))
+                    .build());
+        }
+        List<ReservationDTO> created = reservationService.createReservations(requests);
+        clientId = clients.get(0);
+        reservationId = created.get(0).getId();
+    }
+
+    @Test
+    void getAllReservations() {
+        List<ReservationDTO> reservations = countStatements(MAX_LIST_STATEMENTS,
+                () -> reservationService.getAllReservations());
+        assertThat(reservations).hasSizeGreaterThanOrEqualTo(RESERVATIONS);
+        for (ReservationFetch fetch : ReservationFetch.values()) {
+            assertThat(countStatements(MAX_LIST_STATEMENTS, () -> reservationService.getAllReservations(fetch)))
+                    .hasSizeGreaterThanOrEqualTo(RESERVATIONS);
+        }
+    }
+
+    @Test
+    void getReservationsByClient() {
+        List<ReservationDTO> reservations = countStatements(MAX_LIST_STATEMENTS,
+                () -> reservationService.getReservationsByClient(clientId));
+        assertThat(reservations).hasSizeGreaterThan(1);
+        for (ReservationFetch fetch : ReservationFetch.values()) {
+            assertThat(countStatements(MAX_LIST_STATEMENTS,
+                    () -> reservationService.getReservationsByClient(clientId, fetch)))
+                    .hasSizeGreaterThan(1);
+        }
+    }
+
+    @Test
+    void getReservationById() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        ReservationDTO reservation = countStatements(MAX_BY_ID_STATEMENTS,
+                () -> reservationService.getReservationById(reservationId));
+        assertThat(reservation.getClient().getNom()).isNotNull();
+        assertThat(reservation.getChambre().getType()).isNotNull();
+
+        ReservationDTO details = countStatements(MAX_BY_ID_STATEMENTS,
+                () -> reservationService.getReservationById(reservationId, ReservationFetch.DETAILS));
+        assertThat(details.getClient().isReference()).isFalse();
+        assertThat(details.getChambre().isReference()).isFalse();
+
+        ReservationDTO references = countStatements(MAX_BY_ID_STATEMENTS,
+                () -> reservationService.getReservationById(reservationId, ReservationFetch.REFERENCES));
+        assertThat(references.getClient().isReference()).isTrue();
+        assertThat(references.getChambre().isReference()).isTrue();
+        assertThat(references.getChambre().getId()).isEqualTo(reservation.getChambre().getId());
+    }
+
+    @Test
+    void getReservationsPage() {
+        for (ReservationFetch fetch : ReservationFetch.values()) {
+            assertThat(countStatements(MAX_PAGE_STATEMENTS,
+                    () -> reservationService.getReservations(null, RESERVATIONS, fetch)).getItems())
+                    .hasSize(RESERVATIONS);
+        }
+    }
+
+    @Test
+    void getReservationsByClientPage() {
+        for (ReservationFetch fetch : ReservationFetch.values()) {
+            assertThat(countStatements(MAX_PAGE_STATEMENTS,
+                    () -> reservationService.getReservationsByClient(clientId, null, RESERVATIONS, fetch))
+                    .getItems())
+                    .hasSizeGreaterThan(1);
+        }
+    }
+
+    private <T> T countStatements(long max, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements issued")
+                .isBetween(1L, max);
+        return result;
+    }
+}